@@ -2,6 +2,8 @@ package com.studyolle.account;
 
 import com.studyolle.domain.Account;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.Errors;
@@ -9,6 +11,7 @@ import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.time.LocalDateTime;
 
@@ -33,12 +36,24 @@ public class AccountController {
     }
 
     @PostMapping("/sign-up")
-    public String signUpSubmit(@Valid @ModelAttribute SignUpForm signUpForm, Errors errors) {
+    public String signUpSubmit(@Valid @ModelAttribute SignUpForm signUpForm, Errors errors, HttpServletResponse response) {
         if (errors.hasErrors()) {
             return "account/sign-up";
         }
 
-        Account account = accountService.processNewAccount(signUpForm);
+        Account account;
+        try {
+            account = accountService.processNewAccount(signUpForm);
+        } catch (DataIntegrityViolationException e) {
+            // 다른 노드가 먼저 저장한 값은 이 노드의 필터가 모르므로 유니크 제약에서 걸린다.
+            if (accountRepository.existsByEmail(signUpForm.getEmail())) {
+                errors.rejectValue("email", "invalid.email", new Object[]{signUpForm.getEmail()}, "이미 사용중인 이메일입니다.");
+            } else {
+                errors.rejectValue("nickname", "invalid.nickname", new Object[]{signUpForm.getNickname()}, "이미 사용중인 닉네임입니다.");
+            }
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return "account/sign-up";
+        }
         accountService.login(account);
 
         return "redirect:/";
@@ -67,7 +82,7 @@ public class AccountController {
     }
 
     @GetMapping("/check-email")
-    public String checkEmail(@CurrentUser Account account, Model model) {
+    public String checkEmail(@CurrentUser UserAccount account, Model model) {
         model.addAttribute("email", account.getEmail());
         return "account/check-email";
     }
@@ -88,7 +103,7 @@ public class AccountController {
     }
 
     @GetMapping("/profile/{nickname}")
-    public String viewProfile(@PathVariable String nickname, Model model, @CurrentUser Account account) {
+    public String viewProfile(@PathVariable String nickname, Model model, @CurrentUser UserAccount account) {
         Account accountToView = accountService.getAccount(nickname);
 
         if (accountToView == null) {
@@ -96,7 +111,7 @@ public class AccountController {
         }
 
         model.addAttribute(accountToView);
-        model.addAttribute("isOwner", accountToView.equals(account));
+        model.addAttribute("isOwner", account != null && accountToView.getId().equals(account.getId()));
         return "account/profile";
     }
 
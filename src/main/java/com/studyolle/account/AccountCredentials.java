@@ -0,0 +1,16 @@
+package com.studyolle.account;
+
+public interface AccountCredentials {
+
+    Long getId();
+
+    String getNickname();
+
+    String getEmail();
+
+    String getPassword();
+
+    boolean isEmailVerified();
+
+    String getProfileImageHash();
+}
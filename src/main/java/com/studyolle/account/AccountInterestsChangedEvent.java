@@ -0,0 +1,14 @@
+package com.studyolle.account;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 계정의 관심 태그나 지역이 바뀌었음을 알린다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class AccountInterestsChangedEvent {
+
+    private final Long accountId;
+}
@@ -2,8 +2,11 @@ package com.studyolle.account;
 
 import com.studyolle.domain.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Transactional(readOnly = true)
 public interface AccountRepository extends JpaRepository<Account, Long> {
     boolean existsByEmail(String email);
@@ -13,4 +16,15 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     Account findByEmail(String email);
 
     Account findByNickname(String nickname);
+
+    @Query("select a.id as id, a.nickname as nickname, a.email as email, a.password as password, " +
+            "a.emailVerified as emailVerified, a.profileImageHash as profileImageHash " +
+            "from Account a where a.email = :emailOrNickname or a.nickname = :emailOrNickname")
+    AccountCredentials findCredentialsByEmailOrNickname(String emailOrNickname);
+
+    @Query("select t.title from Account a join a.tags t where a.id = :accountId order by t.title")
+    List<String> findTagTitlesById(Long accountId);
+
+    @Query("select z.id from Account a join a.zones z where a.id = :accountId")
+    List<Long> findZoneIdsById(Long accountId);
 }
@@ -1,16 +1,25 @@
 package com.studyolle.account;
 
-import com.studyolle.config.AppProperties;
 import com.studyolle.domain.Account;
 import com.studyolle.domain.Tag;
 import com.studyolle.domain.Zone;
+import com.studyolle.image.ImageStore;
 import com.studyolle.mail.EmailForm;
 import com.studyolle.mail.EmailService;
+import com.studyolle.mail.MailRenderer;
+import com.studyolle.mail.SimpleLinkMail;
+import com.studyolle.settings.JoinTableUpdater;
+import com.studyolle.settings.JoinTableUpdater.JoinTable;
 import com.studyolle.settings.form.NicknameForm;
+import com.studyolle.unique.UniqueNames;
 import com.studyolle.settings.form.Notifications;
 import com.studyolle.settings.form.Profile;
+import com.studyolle.tag.TagService;
+import com.studyolle.zone.ZoneCatalog;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,13 +29,12 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+import org.springframework.util.StringUtils;
 
 import javax.validation.Valid;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -37,8 +45,14 @@ public class AccountService implements UserDetailsService {
     private final PasswordEncoder passwordEncoder;
     private final ModelMapper modelMapper;
     private final EmailService emailService;
-    private final TemplateEngine templateEngine;
-    private final AppProperties appProperties;
+    private final MailRenderer mailRenderer;
+    private final ImageStore imageStore;
+    private final UnknownLoginCache unknownLoginCache;
+    private final TagService tagService;
+    private final ZoneCatalog zoneCatalog;
+    private final JoinTableUpdater joinTableUpdater;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UniqueNames uniqueNames;
 
     public Account processNewAccount(SignUpForm signUpForm) {
         Account newAccount = saveNewAccount(signUpForm);
@@ -53,25 +67,27 @@ public class AccountService implements UserDetailsService {
     }
 
     private Account saveNewAccount(@Valid SignUpForm signUpForm) {
-        signUpForm.setPassword(passwordEncoder.encode(signUpForm.getPassword()));
         Account account = modelMapper.map(signUpForm, Account.class);
+        account.setPassword(passwordEncoder.encode(signUpForm.getPassword()));
         account.setStudyUpdatedByWeb(true);
         account.setStudyEnrollmentResultByWeb(true);
         account.setStudyCreatedByWeb(true);
         account.generateEmailCheckToken();
-        return accountRepository.save(account);
+        unknownLoginCache.evictAfterCommit(account.getEmail(), account.getNickname());
+        uniqueNames.addEmail(account.getEmail());
+        uniqueNames.addNickname(account.getNickname());
+        // 유니크 제약 위반이 커밋이 아니라 여기서 드러나도록 바로 넣는다.
+        return accountRepository.saveAndFlush(account);
     }
 
     private void sendSignUpConfirmEmail(Account newAccount) {
-        Context context = new Context();
-        context.setVariable("link", "/check-email-token?token=" + newAccount.getEmailCheckToken() +
-        "&email=" + newAccount.getEmail());
-        context.setVariable("nickname", newAccount.getNickname());
-        context.setVariable("linkName", "이메일 인증하기");
-        context.setVariable("message", "스터디올레 서비스를 사용하려면 링크를 클릭하세요.");
-        context.setVariable("host", appProperties.getHost());
-
-        String message = templateEngine.process("mail/simple-link", context);
+        String message = mailRenderer.render(SimpleLinkMail.builder()
+                .link("/check-email-token?token=" + newAccount.getEmailCheckToken() +
+                        "&email=" + newAccount.getEmail())
+                .nickname(newAccount.getNickname())
+                .linkName("이메일 인증하기")
+                .message("스터디올레 서비스를 사용하려면 링크를 클릭하세요.")
+                .build());
 
         EmailForm emailForm = EmailForm.builder()
                 .to(newAccount.getEmail())
@@ -94,16 +110,17 @@ public class AccountService implements UserDetailsService {
     @Transactional(readOnly = true)
     @Override
     public UserDetails loadUserByUsername(String emailOrNickname) throws UsernameNotFoundException {
-        Account account = accountRepository.findByEmail(emailOrNickname);
-        if (account == null) {
-            account = accountRepository.findByNickname(emailOrNickname);
+        if (unknownLoginCache.isUnknown(emailOrNickname)) {
+            throw new UsernameNotFoundException(emailOrNickname);
         }
 
-        if (account == null) {
+        AccountCredentials credentials = accountRepository.findCredentialsByEmailOrNickname(emailOrNickname);
+        if (credentials == null) {
+            unknownLoginCache.markUnknown(emailOrNickname);
             throw new UsernameNotFoundException(emailOrNickname);
         }
 
-        return new UserAccount(account);
+        return new UserAccount(credentials);
     }
 
     public void completeSignUp(Account account) {
@@ -112,8 +129,13 @@ public class AccountService implements UserDetailsService {
     }
 
     public void updateProfile(Account account, Profile profile) {
+        String profileImageHash = StringUtils.hasText(profile.getProfileImage())
+                ? imageStore.storeDataUrl(ImageStore.PROFILE, profile.getProfileImage())
+                : account.getProfileImageHash();
         modelMapper.map(profile, account);
+        account.setProfileImageHash(profileImageHash);
         accountRepository.save(account);
+        login(account);
     }
 
     public void updatePassword(Account account, String newPassword) {
@@ -126,9 +148,20 @@ public class AccountService implements UserDetailsService {
         accountRepository.save(account);
     }
 
+    /**
+     * 다른 노드에서 먼저 쓴 닉네임이면 유니크 제약 위반을 그대로 던지고, 로그인한 계정의 닉네임은 바꾸지 않는다.
+     */
     public void updateNickname(Account account, NicknameForm nicknameForm) {
+        String previous = account.getNickname();
         account.setNickname(nicknameForm.getNickname());
-        accountRepository.save(account);
+        try {
+            accountRepository.saveAndFlush(account);
+        } catch (DataIntegrityViolationException e) {
+            account.setNickname(previous);
+            throw e;
+        }
+        unknownLoginCache.evictAfterCommit(account.getNickname());
+        uniqueNames.addNickname(account.getNickname());
         login(account);
     }
 
@@ -136,15 +169,13 @@ public class AccountService implements UserDetailsService {
         Account byEmail = accountRepository.findByEmail(email);
         generateEmailLoginToken(byEmail);
 
-        Context context = new Context();
-        context.setVariable("link", "/email-login-token?token=" + byEmail.getEmailLoginToken() +
-                "&email=" + byEmail.getEmail());
-        context.setVariable("nickname", byEmail.getNickname());
-        context.setVariable("linkName", "스터디올레 로그인하기");
-        context.setVariable("message", "로그인하려면 아래 링크를 클릭하세요.");
-        context.setVariable("host", appProperties.getHost());
-
-        String message = templateEngine.process("mail/simple-link", context);
+        String message = mailRenderer.render(SimpleLinkMail.builder()
+                .link("/email-login-token?token=" + byEmail.getEmailLoginToken() +
+                        "&email=" + byEmail.getEmail())
+                .nickname(byEmail.getNickname())
+                .linkName("스터디올레 로그인하기")
+                .message("로그인하려면 아래 링크를 클릭하세요.")
+                .build());
 
         EmailForm emailForm = EmailForm.builder()
                 .to(email)
@@ -160,36 +191,54 @@ public class AccountService implements UserDetailsService {
         accountRepository.save(byEmail);
     }
 
-    public void addTag(Account account, Tag tag) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getTags().add(tag));
+    public void updateTags(Long accountId, List<String> tagTitles) {
+        joinTableUpdater.replace(JoinTable.ACCOUNT_TAGS, accountId, tagService.findOrCreateNew(tagTitles).values()
+                .stream()
+                .map(Tag::getId)
+                .collect(Collectors.toSet()));
+        eventPublisher.publishEvent(new AccountInterestsChangedEvent(accountId));
     }
 
-    public Set<Tag> getTags(Account account) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        return byId.orElseThrow().getTags();
+    public void updateZones(Long accountId, List<String> zoneNames) {
+        joinTableUpdater.replace(JoinTable.ACCOUNT_ZONES, accountId, zoneNames.stream()
+                .map(zoneCatalog::findByDisplayName)
+                .flatMap(Optional::stream)
+                .map(Zone::getId)
+                .collect(Collectors.toSet()));
+        eventPublisher.publishEvent(new AccountInterestsChangedEvent(accountId));
     }
 
-    public void removeTag(Account account, Tag tag) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getTags().remove(tag));
+    public void addTag(Long accountId, Tag tag) {
+        joinTableUpdater.add(JoinTable.ACCOUNT_TAGS, accountId, tag.getId());
+        eventPublisher.publishEvent(new AccountInterestsChangedEvent(accountId));
     }
 
-    public void addZones(Account account, Zone zone) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getZones().add(zone));
+    @Transactional(readOnly = true)
+    public List<String> getTagTitles(Long accountId) {
+        return accountRepository.findTagTitlesById(accountId);
     }
 
-    public Set<Zone> getZones(Account account) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        return byId.orElseThrow().getZones();
+    public void removeTag(Long accountId, Tag tag) {
+        joinTableUpdater.remove(JoinTable.ACCOUNT_TAGS, accountId, tag.getId());
+        eventPublisher.publishEvent(new AccountInterestsChangedEvent(accountId));
     }
 
-    public void removeZones(Account account, Zone zone) {
-        Optional<Account> byId = accountRepository.findById(account.getId());
-        byId.ifPresent(a -> a.getZones().remove(zone));
+    public void addZone(Long accountId, Zone zone) {
+        joinTableUpdater.add(JoinTable.ACCOUNT_ZONES, accountId, zone.getId());
+        eventPublisher.publishEvent(new AccountInterestsChangedEvent(accountId));
     }
 
+    @Transactional(readOnly = true)
+    public List<String> getZoneNames(Long accountId) {
+        return zoneCatalog.getDisplayNamesById(accountRepository.findZoneIdsById(accountId));
+    }
+
+    public void removeZone(Long accountId, Zone zone) {
+        joinTableUpdater.remove(JoinTable.ACCOUNT_ZONES, accountId, zone.getId());
+        eventPublisher.publishEvent(new AccountInterestsChangedEvent(accountId));
+    }
+
+    @Transactional(readOnly = true)
     public Account getAccount(String nickname) {
         return accountRepository.findByNickname(nickname);
     }
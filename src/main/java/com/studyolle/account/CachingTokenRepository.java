@@ -0,0 +1,172 @@
+package com.studyolle.account;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 자동 로그인 토큰 저장소. 읽은 시리즈를 크기가 제한된 메모리 캐시에 cacheTtl 동안 두어 같은 시리즈를 다시 SELECT 하지
+ * 않는다. 토큰을 바꾸는 쓰기는 모두 바로 DB 에 반영하므로 프로세스가 죽어도 바뀐 토큰을 잃지 않고, 다른 노드는 캐시에
+ * 없거나 유지 시간이 지난 시리즈를 DB 에서 읽어 최신 토큰을 본다.
+ * <p>
+ * sweepInterval 마다 tokenValidity 동안 쓰이지 않은 시리즈를 지운다.
+ */
+@Slf4j
+@Component
+public class CachingTokenRepository implements PersistentTokenRepository {
+
+    static final int MAX_SIZE = 10_000;
+
+    private static final String SELECT_BY_SERIES = "select username, series, token, last_used from persistent_logins where series = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RememberMeProperties properties;
+
+    private final Map<String, CachedToken> tokens = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedToken> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    /**
+     * 토큰을 바꾸거나 지울 때마다 올린다. DB 에서 읽는 동안 바뀌었으면 읽은 값을 캐시에 넣지 않는다.
+     */
+    private long version;
+
+    private ScheduledExecutorService scheduler;
+
+    public CachingTokenRepository(JdbcTemplate jdbcTemplate, RememberMeProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "remember-me-tokens");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepInterval = properties.getSweepInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                log.error("failed to remove expired remember-me tokens", e);
+            }
+        }, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public void createNewToken(PersistentRememberMeToken token) {
+        jdbcTemplate.update("insert into persistent_logins (username, series, token, last_used) values (?, ?, ?, ?)",
+                token.getUsername(), token.getSeries(), token.getTokenValue(), token.getDate());
+        cache(token);
+    }
+
+    /**
+     * DB 를 먼저 고치고 캐시를 맞춘다. 그사이 sweep 이 시리즈를 지웠으면 캐시에서도 뺀다.
+     */
+    @Override
+    public void updateToken(String series, String tokenValue, Date lastUsed) {
+        int updated = jdbcTemplate.update("update persistent_logins set token = ?, last_used = ? where series = ?",
+                tokenValue, lastUsed, series);
+        synchronized (this) {
+            version++;
+            CachedToken current = tokens.get(series);
+            if (updated == 0 || current == null) {
+                tokens.remove(series);
+                return;
+            }
+            tokens.put(series, new CachedToken(new PersistentRememberMeToken(
+                    current.token.getUsername(), series, tokenValue, lastUsed), expiresAt()));
+        }
+    }
+
+    @Override
+    public PersistentRememberMeToken getTokenForSeries(String seriesId) {
+        long readVersion;
+        synchronized (this) {
+            CachedToken cached = tokens.get(seriesId);
+            if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+                return cached.token;
+            }
+            readVersion = version;
+        }
+
+        List<PersistentRememberMeToken> found = jdbcTemplate.query(SELECT_BY_SERIES, (rs, rowNum) -> new PersistentRememberMeToken(
+                rs.getString("username"), rs.getString("series"), rs.getString("token"), rs.getTimestamp("last_used")), seriesId);
+        synchronized (this) {
+            if (found.isEmpty()) {
+                tokens.remove(seriesId);
+                return null;
+            }
+            if (version == readVersion) {
+                cache(found.get(0));
+            }
+        }
+        return found.get(0);
+    }
+
+    @Override
+    public void removeUserTokens(String username) {
+        jdbcTemplate.update("delete from persistent_logins where username = ?", username);
+        synchronized (this) {
+            version++;
+            tokens.values().removeIf(cached -> cached.token.getUsername().equals(username));
+        }
+    }
+
+    /**
+     * tokenValidity 동안 쓰이지 않은 시리즈를 지운다. 테이블 전체를 훑는 DELETE 동안 자동 로그인이 기다리지 않도록 잠그지
+     * 않고 지우고, 캐시는 지운 뒤에 맞춘다.
+     */
+    public void sweep() {
+        Date expiredBefore = new Date(System.currentTimeMillis() - properties.getTokenValidity().toMillis());
+        int removed = jdbcTemplate.update("delete from persistent_logins where last_used < ?", expiredBefore);
+        synchronized (this) {
+            version++;
+            tokens.values().removeIf(cached -> cached.token.getDate().before(expiredBefore));
+        }
+        if (removed > 0) {
+            log.info("removed {} expired remember-me series", removed);
+        }
+    }
+
+    private synchronized void cache(PersistentRememberMeToken token) {
+        tokens.put(token.getSeries(), new CachedToken(token, expiresAt()));
+    }
+
+    private long expiresAt() {
+        return System.currentTimeMillis() + properties.getCacheTtl().toMillis();
+    }
+
+    private static class CachedToken {
+
+        private final PersistentRememberMeToken token;
+        private final long expiresAt;
+
+        private CachedToken(PersistentRememberMeToken token, long expiresAt) {
+            this.token = token;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
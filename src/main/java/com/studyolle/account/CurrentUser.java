@@ -1,15 +1,16 @@
 package com.studyolle.account;
 
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * 로그인한 사용자를 주입한다. 파라미터 타입이 {@link UserAccount}면 세션의 인증 주체를,
+ * Account면 인증 주체의 id로 조회한 엔티티를 넘긴다. 로그인하지 않았으면 null이다.
+ */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.PARAMETER)
-@AuthenticationPrincipal(expression = "#this == 'anonymousUser' ? null : account")
 public @interface CurrentUser {
 
 }
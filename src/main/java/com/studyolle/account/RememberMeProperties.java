@@ -0,0 +1,22 @@
+package com.studyolle.account;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("app.remember-me")
+public class RememberMeProperties {
+
+    private Duration tokenValidity = Duration.ofDays(14);
+
+    /**
+     * 읽어 둔 시리즈를 DB 에서 다시 읽지 않고 쓰는 시간. 다른 노드가 바꾼 토큰은 이 시간이 지나야 보인다.
+     */
+    private Duration cacheTtl = Duration.ofSeconds(30);
+
+    private Duration sweepInterval = Duration.ofHours(1);
+}
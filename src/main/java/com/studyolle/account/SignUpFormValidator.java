@@ -1,5 +1,6 @@
 package com.studyolle.account;
 
+import com.studyolle.unique.UniqueNames;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
@@ -9,7 +10,7 @@ import org.springframework.validation.Validator;
 @RequiredArgsConstructor
 public class SignUpFormValidator implements Validator {
 
-    private final AccountRepository accountRepository;
+    private final UniqueNames uniqueNames;
 
     @Override
     public boolean supports(Class<?> clazz) {
@@ -19,11 +20,11 @@ public class SignUpFormValidator implements Validator {
     @Override
     public void validate(Object target, Errors errors) {
         SignUpForm signUpForm = (SignUpForm) target;
-        if (accountRepository.existsByEmail(signUpForm.getEmail())) {
+        if (uniqueNames.isEmailTaken(signUpForm.getEmail())) {
             errors.rejectValue("email", "invalid.email", new Object[]{signUpForm.getEmail()}, "이미 사용중인 이메일입니다.");
         }
 
-        if (accountRepository.existsByNickname(signUpForm.getNickname())) {
+        if (uniqueNames.isNicknameTaken(signUpForm.getNickname())) {
             errors.rejectValue("nickname", "invalid.nickname", new Object[]{signUpForm.getNickname()}, "이미 사용중인 닉네임입니다.");
         }
     }
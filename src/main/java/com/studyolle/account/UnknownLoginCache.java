@@ -0,0 +1,78 @@
+package com.studyolle.account;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 존재하지 않는 이메일/닉네임을 짧은 시간 동안 기억해서, 같은 식별자로 반복되는 로그인 시도가
+ * 매번 DB를 조회하지 않도록 한다. 크기와 유효 시간이 제한되어 있다.
+ */
+@Component
+public class UnknownLoginCache {
+
+    static final int MAX_SIZE = 10_000;
+    static final Duration TTL = Duration.ofSeconds(30);
+
+    private final Clock clock;
+
+    private final Map<String, Long> expirations = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    public UnknownLoginCache() {
+        this(Clock.systemUTC());
+    }
+
+    UnknownLoginCache(Clock clock) {
+        this.clock = clock;
+    }
+
+    public synchronized boolean isUnknown(String emailOrNickname) {
+        Long expiresAt = expirations.get(emailOrNickname);
+        if (expiresAt == null) {
+            return false;
+        }
+
+        if (expiresAt <= clock.millis()) {
+            expirations.remove(emailOrNickname);
+            return false;
+        }
+        return true;
+    }
+
+    public synchronized void markUnknown(String emailOrNickname) {
+        expirations.put(emailOrNickname, clock.millis() + TTL.toMillis());
+    }
+
+    /**
+     * 계정을 저장하는 트랜잭션이 커밋된 뒤에 지운다. 커밋 전에 지우면 그사이 들어온 로그인이 아직 보이지 않는
+     * 계정을 다시 모르는 식별자로 기억할 수 있다.
+     */
+    public void evictAfterCommit(String... emailOrNicknames) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(emailOrNicknames);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(emailOrNicknames);
+            }
+        });
+    }
+
+    public synchronized void evict(String... emailOrNicknames) {
+        for (String emailOrNickname : emailOrNicknames) {
+            expirations.remove(emailOrNickname);
+        }
+    }
+}
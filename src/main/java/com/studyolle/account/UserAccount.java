@@ -7,13 +7,44 @@ import org.springframework.security.core.userdetails.User;
 
 import java.util.List;
 
+/**
+ * 세션과 SecurityContext에 보관되는 인증 주체. Account 엔티티 대신 화면에 필요한 최소한의 값만 가진다.
+ * 전체 Account가 필요하면 {@link CurrentUser}가 붙은 Account 파라미터로 그때그때 조회한다.
+ */
 @Getter
 public class UserAccount extends User {
 
-    private Account account;
+    private final Long id;
+
+    private final String nickname;
+
+    private final String email;
+
+    private final boolean emailVerified;
+
+    private final String profileImageHash;
 
     public UserAccount(Account account) {
-        super(account.getNickname(), account.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_USER")));
-        this.account = account;
+        this(account.getId(), account.getNickname(), account.getEmail(), account.getPassword(),
+                account.isEmailVerified(), account.getProfileImageHash());
+    }
+
+    public UserAccount(AccountCredentials credentials) {
+        this(credentials.getId(), credentials.getNickname(), credentials.getEmail(), credentials.getPassword(),
+                credentials.isEmailVerified(), credentials.getProfileImageHash());
+    }
+
+    private UserAccount(Long id, String nickname, String email, String password, boolean emailVerified,
+                        String profileImageHash) {
+        super(nickname, password, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        this.id = id;
+        this.nickname = nickname;
+        this.email = email;
+        this.emailVerified = emailVerified;
+        this.profileImageHash = profileImageHash;
+    }
+
+    public String getProfileImageUrl() {
+        return this.profileImageHash != null ? "/images/profile/" + this.profileImageHash : null;
     }
 }
@@ -3,6 +3,7 @@ package com.studyolle.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 @Data
 @Component
@@ -10,4 +11,8 @@ import org.springframework.stereotype.Component;
 public class AppProperties {
 
     private String host;
+
+    private String imageDirectory;
+
+    private DataSize imageMaxSize = DataSize.ofMegabytes(1);
 }
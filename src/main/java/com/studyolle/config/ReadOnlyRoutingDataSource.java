@@ -0,0 +1,54 @@
+package com.studyolle.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * {@link #readFromReplica}로 감싼 읽기 전용 트랜잭션의 연결은 replica 에서, 그 밖의 연결은 primary 에서 가져온다.
+ * 읽기 전용이라는 것만으로는 replica 로 보내지 않는다. 방금 쓴 내용을 곧바로 읽는 조회도 읽기 전용이기 때문이다.
+ * 트랜잭션 매니저는 읽기 전용 여부를 기록하기 전에 연결부터 얻으므로 {@link #of}처럼
+ * {@link LazyConnectionDataSourceProxy}로 감싸 첫 문장을 보낼 때 고르게 한다.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> replicaAllowed = ThreadLocal.withInitial(() -> false);
+
+    ReadOnlyRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public static DataSource of(DataSource primary, DataSource replica) {
+        return new LazyConnectionDataSourceProxy(new ReadOnlyRoutingDataSource(primary, replica));
+    }
+
+    /**
+     * 읽기 전용 트랜잭션 안에서 read 가 처음 보내는 문장의 연결을 replica 에서 가져온다. 복제 지연만큼 늦은 결과를
+     * 보여도 되는 조회에만 쓴다. 트랜잭션이 이미 연결을 얻었으면 그 연결을 그대로 쓴다.
+     */
+    public static <T> T readFromReplica(Supplier<T> read) {
+        boolean previous = replicaAllowed.get();
+        replicaAllowed.set(true);
+        try {
+            return read.get();
+        } finally {
+            replicaAllowed.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return replicaAllowed.get() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? Target.REPLICA : Target.PRIMARY;
+    }
+}
@@ -0,0 +1,66 @@
+package com.studyolle.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * app.datasource.replica.url 이 있으면 spring.datasource 를 primary 로, app.datasource.replica 를 replica 로 두고
+ * {@link ReadOnlyRoutingDataSource#readFromReplica}로 감싼 읽기 전용 트랜잭션을 replica 로 보낸다. 그 밖의 읽기 전용
+ * 트랜잭션, 트랜잭션 밖에서 보내는 문장과 스키마 생성은 primary 로 간다.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, Environment environment) {
+        return createDataSource(properties, "spring.datasource.hikari", "primary", environment);
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(Environment environment) {
+        DataSourceProperties properties = Binder.get(environment)
+                .bind("app.datasource.replica", DataSourceProperties.class)
+                .get();
+        HikariDataSource dataSource = createDataSource(properties, "app.datasource.replica.hikari", "replica", environment);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        return ReadOnlyRoutingDataSource.of(primaryDataSource, replicaDataSource);
+    }
+
+    /**
+     * open-session-in-view 로 요청 내내 열려 있는 EntityManager 는 기본 설정에서 처음 얻은 연결을 요청이 끝날 때까지
+     * 붙들어서, 앞선 읽기 전용 트랜잭션이 replica 연결을 얻으면 뒤의 쓰기 트랜잭션도 그 연결을 쓴다. 트랜잭션이 끝날 때마다
+     * 연결을 돌려주어 트랜잭션마다 다시 고르게 한다.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    private HikariDataSource createDataSource(DataSourceProperties properties, String hikariPrefix, String poolName,
+                                              Environment environment) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind(hikariPrefix, Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(poolName);
+        return dataSource;
+    }
+}
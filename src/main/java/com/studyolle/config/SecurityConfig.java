@@ -1,19 +1,16 @@
 package com.studyolle.config;
 
 import com.studyolle.account.AccountService;
+import com.studyolle.account.CachingTokenRepository;
+import com.studyolle.account.RememberMeProperties;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
-import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
-import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
-
-import javax.sql.DataSource;
 
 @Configuration
 @EnableWebSecurity
@@ -21,14 +18,15 @@ import javax.sql.DataSource;
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private final AccountService accountService;
-    private final DataSource dataSource;
+    private final CachingTokenRepository tokenRepository;
+    private final RememberMeProperties rememberMeProperties;
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http.authorizeRequests()
                 .mvcMatchers("/", "/login", "/sign-up", "/check-email-token",
                         "/email-login-token", "/email-login", "/check-email-login", "/login-link").permitAll()
-                .mvcMatchers(HttpMethod.GET, "/profile/*").permitAll()
+                .mvcMatchers(HttpMethod.GET, "/profile/*", "/search/**", "/studies", "/check/nickname").permitAll()
                 .anyRequest().authenticated();
 
         http.formLogin()
@@ -39,14 +37,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
         http.rememberMe()
                 .userDetailsService(accountService)
-                .tokenRepository(tokenRepository());
-    }
-
-    @Bean
-    public PersistentTokenRepository tokenRepository() {
-        JdbcTokenRepositoryImpl jdbcTokenRepository = new JdbcTokenRepositoryImpl();
-        jdbcTokenRepository.setDataSource(dataSource);
-        return jdbcTokenRepository;
+                .tokenRepository(tokenRepository)
+                .tokenValiditySeconds((int) rememberMeProperties.getTokenValidity().toSeconds());
     }
 
     @Override
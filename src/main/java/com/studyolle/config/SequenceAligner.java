@@ -0,0 +1,113 @@
+package com.studyolle.config;
+
+import com.studyolle.reference.ReferenceDataLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Map;
+
+/**
+ * 엔티티마다 시퀀스를 두기 전, hibernate_sequence 하나를 같이 쓰던 DB 에서는 새 시퀀스가 1부터 시작해 이미 있는 id 와
+ * 겹친다. 시작할 때 시퀀스가 테이블의 가장 큰 id 보다 뒤처져 있으면 그다음 값부터 다시 시작하게 한다.
+ * <p>
+ * 시퀀스의 다음 값은 nextval 을 부르지 않고 읽으므로 뒤처지지 않은 시퀀스는 건드리지 않는다. 뒤처진 시퀀스만
+ * {@link ReferenceDataLoader#lock(String)}으로 잠근 뒤 다시 확인하고 옮기므로, 여러 노드가 함께 떠도 한 노드만 옮긴다.
+ * 다음 값을 읽는 방법을 모르는 DB 에서는 잠근 뒤 nextval 로 확인한다.
+ */
+@Slf4j
+@Component
+public class SequenceAligner {
+
+    static final String LOCK_NAME = "sequences";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ReferenceDataLoader referenceDataLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+
+    private String databaseName;
+
+    public SequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                           ReferenceDataLoader referenceDataLoader, PlatformTransactionManager transactionManager,
+                           DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.referenceDataLoader = referenceDataLoader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void align() throws MetaDataAccessException {
+        databaseName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        for (EntityPersister persister : sessionFactory.getMetamodel().entityPersisters().values()) {
+            if (!(persister.getIdentifierGenerator() instanceof SequenceStyleGenerator)
+                    || !(persister instanceof AbstractEntityPersister)) {
+                continue;
+            }
+
+            AbstractEntityPersister entityPersister = (AbstractEntityPersister) persister;
+            String maxIdQuery = "select max(" + entityPersister.getIdentifierColumnNames()[0]
+                    + ") from " + entityPersister.getTableName();
+            DatabaseStructure sequence = ((SequenceStyleGenerator) persister.getIdentifierGenerator()).getDatabaseStructure();
+            Long maxId = jdbcTemplate.queryForObject(maxIdQuery, Long.class);
+            if (maxId == null || !isBehind(sequence, maxId)) {
+                continue;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                referenceDataLoader.lock(LOCK_NAME);
+                // 기다리는 동안 다른 노드가 옮겼을 수 있다
+                Long lockedMaxId = jdbcTemplate.queryForObject(maxIdQuery, Long.class);
+                Long next = peekNextValue(sequence);
+                if (next == null) {
+                    next = jdbcTemplate.queryForObject(dialect.getSequenceNextValString(sequence.getName()), Long.class);
+                }
+                if (lockedMaxId != null && next != null && next <= lockedMaxId) {
+                    jdbcTemplate.execute("alter sequence " + sequence.getName() + " restart with " + (lockedMaxId + 1));
+                    log.info("restarted {} after id {}", sequence.getName(), lockedMaxId);
+                }
+            });
+        }
+    }
+
+    private boolean isBehind(DatabaseStructure sequence, long maxId) {
+        Long next = peekNextValue(sequence);
+        return next == null || next <= maxId;
+    }
+
+    /**
+     * @return nextval 을 부르면 받을 값. 읽는 방법을 모르는 DB 면 null
+     */
+    private Long peekNextValue(DatabaseStructure sequence) {
+        if ("PostgreSQL".equalsIgnoreCase(databaseName)) {
+            Map<String, Object> state = jdbcTemplate.queryForMap("select last_value, is_called from " + sequence.getName());
+            long lastValue = ((Number) state.get("last_value")).longValue();
+            return Boolean.TRUE.equals(state.get("is_called")) ? lastValue + sequence.getIncrementSize() : lastValue;
+        }
+        if ("H2".equalsIgnoreCase(databaseName)) {
+            Long currentValue = jdbcTemplate.queryForObject("select current_value from information_schema.sequences"
+                    + " where sequence_name = ?", Long.class, sequence.getName().toUpperCase());
+            return currentValue == null ? null : currentValue + sequence.getIncrementSize();
+        }
+        return null;
+    }
+}
@@ -13,7 +13,9 @@ import java.util.UUID;
 @Builder @AllArgsConstructor @NoArgsConstructor
 public class Account {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
@@ -44,8 +46,8 @@ public class Account {
 
     private String location;
 
-    @Lob @Basic(fetch = FetchType.EAGER)
-    private String profileImage;
+    @Column(length = 64)
+    private String profileImageHash;
 
     private boolean studyCreatedByEmail;
 
@@ -92,7 +94,7 @@ public class Account {
         return this.emailCheckTokenGeneratedAt.isBefore(LocalDateTime.now().minusHours(1));
     }
 
-    public boolean isManagerOf(Study study) {
-        return study.getManagers().contains(this);
+    public String getProfileImageUrl() {
+        return this.profileImageHash != null ? "/images/profile/" + this.profileImageHash : null;
     }
 }
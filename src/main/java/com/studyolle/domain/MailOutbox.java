@@ -0,0 +1,52 @@
+package com.studyolle.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Table(name = "mail_outbox", indexes = @Index(name = "idx_mail_outbox_pending", columnList = "sentAt, failedAt, nextAttemptAt"))
+@Entity
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Builder @AllArgsConstructor @NoArgsConstructor
+public class MailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mail_outbox_seq")
+    @SequenceGenerator(name = "mail_outbox_seq", sequenceName = "mail_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String subject;
+
+    @Lob @Basic(fetch = FetchType.EAGER)
+    private String message;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime sentAt;
+
+    private LocalDateTime failedAt;
+
+    public void sent() {
+        this.sentAt = LocalDateTime.now();
+    }
+
+    public void failed(int maxAttempts, Duration backoff) {
+        this.attempts++;
+        if (this.attempts >= maxAttempts) {
+            this.failedAt = LocalDateTime.now();
+        } else {
+            this.nextAttemptAt = LocalDateTime.now().plus(backoff);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.studyolle.domain;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+/**
+ * 마지막으로 반영한 참조 데이터 파일의 내용 해시.
+ */
+@Entity
+@Getter
+@Setter
+public class ReferenceDataVersion {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false, length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private LocalDateTime loadedAt;
+}
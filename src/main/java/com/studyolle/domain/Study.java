@@ -2,18 +2,29 @@ package com.studyolle.domain;
 
 import com.studyolle.account.UserAccount;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
-@NamedEntityGraph(name = "Study.withAll", attributeNodes = {
+@NamedEntityGraph(name = "Study.withTagsAndManagers", attributeNodes = {
         @NamedAttributeNode("tags"),
+        @NamedAttributeNode("managers")
+})
+@NamedEntityGraph(name = "Study.withZonesAndManagers", attributeNodes = {
         @NamedAttributeNode("zones"),
+        @NamedAttributeNode("managers")
+})
+@NamedEntityGraph(name = "Study.withManagers", attributeNodes = {
+        @NamedAttributeNode("managers")
+})
+@NamedEntityGraph(name = "Study.withMembers", attributeNodes = {
         @NamedAttributeNode("managers"),
         @NamedAttributeNode("members")
 })
+@Table(indexes = @Index(name = "idx_study_published", columnList = "publishedDateTime DESC, id DESC, published, recruiting"))
 @Entity
 @Getter @Setter
 @EqualsAndHashCode(of = "id")
@@ -21,7 +32,9 @@ import java.util.Set;
 @AllArgsConstructor @NoArgsConstructor
 public class Study {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "study_seq")
+    @SequenceGenerator(name = "study_seq", sequenceName = "study_seq", allocationSize = 50)
     private Long id;
 
     @ManyToMany
@@ -37,16 +50,18 @@ public class Study {
 
     private String shortDescription;
 
-    @Lob @Basic(fetch = FetchType.EAGER)
-    private String fullDescription;
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    private StudyDetail detail;
 
-    @Lob @Basic(fetch = FetchType.EAGER)
-    private String image;
+    @Column(length = 64)
+    private String imageHash;
 
     @ManyToMany
+    @JoinTable(indexes = @Index(name = "idx_study_tags_tag", columnList = "tags_id, study_id"))
     private Set<Tag> tags = new HashSet<>();
 
     @ManyToMany
+    @JoinTable(indexes = @Index(name = "idx_study_zones_zone", columnList = "zones_id, study_id"))
     private Set<Zone> zones = new HashSet<>();
 
     private LocalDateTime publishedDateTime;
@@ -63,26 +78,68 @@ public class Study {
 
     private boolean useBanner;
 
+    /**
+     * 가입, 탈퇴, 관리자 추가 때 SQL 로만 올리고 내린다. 엔티티를 고쳐 저장해도 이 컬럼은 덮어쓰지 않는다.
+     */
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private int memberCount;
+
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private int managerCount;
+
+    /**
+     * 멤버 정원. null 이면 제한하지 않는다.
+     */
+    private Integer memberLimit;
+
     public void addManager(Account account) {
         this.managers.add(account);
     }
 
+    public void addMember(Account account) {
+        this.members.add(account);
+    }
+
+    public void removeMember(Account account) {
+        this.members.remove(account);
+    }
+
     public boolean isJoinable(UserAccount userAccount) {
-        Account account = userAccount.getAccount();
         return this.isPublished() && this.isRecruiting()
-                && !this.members.contains(account) && !this.managers.contains(account);
+                && !this.isMember(userAccount) && !this.isManager(userAccount);
     }
 
     public boolean isMember(UserAccount userAccount) {
-        return this.members.contains(userAccount.getAccount());
+        return contains(this.members, userAccount);
     }
 
     public boolean isManager(UserAccount userAccount) {
-        return this.managers.contains(userAccount.getAccount());
+        return contains(this.managers, userAccount);
+    }
+
+    private static boolean contains(Set<Account> accounts, UserAccount userAccount) {
+        return accounts.stream().anyMatch(account -> account.getId().equals(userAccount.getId()));
+    }
+
+    public String getFullDescription() {
+        return this.detail != null ? this.detail.getFullDescription() : null;
+    }
+
+    public void setFullDescription(String fullDescription) {
+        if (this.detail == null) {
+            this.detail = new StudyDetail();
+        }
+        this.detail.setFullDescription(fullDescription);
     }
 
     public String getImage() {
-        return this.image != null ? image : "/images/default_banner.png";
+        return this.imageHash != null ? "/images/study/" + this.imageHash : "/images/default_banner.png";
+    }
+
+    public String getThumbnailImage() {
+        return this.imageHash != null ? "/images/study/" + this.imageHash + "/thumbnail" : "/images/default_banner.png";
     }
 
     public boolean isRemovable() {
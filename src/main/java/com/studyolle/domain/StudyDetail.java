@@ -0,0 +1,19 @@
+package com.studyolle.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+@Entity
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Builder @AllArgsConstructor @NoArgsConstructor
+public class StudyDetail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "study_detail_seq")
+    @SequenceGenerator(name = "study_detail_seq", sequenceName = "study_detail_seq", allocationSize = 50)
+    private Long id;
+
+    @Lob
+    private String fullDescription;
+}
@@ -0,0 +1,92 @@
+package com.studyolle.image;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Optional;
+
+@Controller
+@RequiredArgsConstructor
+public class ImageController {
+
+    static final String CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().getHeaderValue()
+            + ", immutable";
+
+    private static final String NOSNIFF_HEADER = "X-Content-Type-Options";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ImageStore imageStore;
+
+    @GetMapping("/images/profile/{hash:" + ImageStore.HASH_PATTERN + "}")
+    public void profileImage(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        image(ImageStore.PROFILE, hash, request, response);
+    }
+
+    @GetMapping("/images/study/{hash:" + ImageStore.HASH_PATTERN + "}")
+    public void studyImage(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        image(ImageStore.STUDY, hash, request, response);
+    }
+
+    @GetMapping("/images/study/{hash:" + ImageStore.HASH_PATTERN + "}/thumbnail")
+    public void studyThumbnail(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        image(ImageStore.STUDY_THUMBNAIL, hash, request, response);
+    }
+
+    private void image(String category, String hash, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path path = imageStore.resolve(category, hash);
+        Optional<ImageType> type = Files.isRegularFile(path) ? imageStore.storedType(path) : Optional.empty();
+        if (type.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(NOSNIFF_HEADER, "nosniff");
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + hash + "\"")) {
+            return;
+        }
+
+        long size = Files.size(path);
+        response.setContentType(type.get().getMediaType());
+        response.setContentLengthLong(size);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += fileChannel.transferTo(position, size - position, out);
+            }
+        }
+    }
+}
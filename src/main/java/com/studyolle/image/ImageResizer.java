@@ -0,0 +1,65 @@
+package com.studyolle.image;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+public class ImageResizer {
+
+    /**
+     * 디코딩할 수 있는 가로 x 세로 픽셀 수. 작은 파일이라도 헤더에 큰 크기를 적으면 디코딩에 그만큼 메모리를 쓰므로
+     * 헤더만 읽어 넘는 이미지는 디코딩하지 않는다.
+     */
+    static final long MAX_PIXELS = 4096L * 4096L;
+
+    private ImageResizer() {
+    }
+
+    public static byte[] resize(byte[] bytes, int maxWidth) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            // WebP 처럼 JDK 에 디코더가 없는 형식은 줄이지 않고 원본을 그대로 쓴다
+            if (!readers.hasNext()) {
+                return bytes;
+            }
+
+            BufferedImage source;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    throw new InvalidImageException("이미지는 " + MAX_PIXELS + " 픽셀까지 올릴 수 있습니다.");
+                }
+                source = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+            if (source.getWidth() <= maxWidth) {
+                return bytes;
+            }
+
+            int height = Math.max(1, source.getHeight() * maxWidth / source.getWidth());
+            BufferedImage resized = new BufferedImage(maxWidth, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = resized.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, maxWidth, height, null);
+            graphics.dispose();
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            ImageIO.write(resized, "png", outputStream);
+            return outputStream.toByteArray();
+        } catch (IIOException e) {
+            throw new InvalidImageException("이미지를 읽을 수 없습니다.");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
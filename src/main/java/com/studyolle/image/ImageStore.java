@@ -0,0 +1,162 @@
+package com.studyolle.image;
+
+import com.studyolle.config.AppProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * 업로드된 이미지를 내용의 SHA-256 해시를 키로 파일 시스템에 저장한다.
+ * 같은 이미지는 한 번만 저장되고, 저장된 파일은 변하지 않으므로 오래 캐시할 수 있다.
+ * PNG, JPEG, GIF, WebP 만 받으며, 저장할 때 판별한 형식을 옆에 함께 기록해 두고 응답할 때 그대로 쓴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImageStore {
+
+    public static final String PROFILE = "profile";
+    public static final String STUDY = "study";
+    public static final String STUDY_THUMBNAIL = "study-thumbnail";
+
+    public static final int THUMBNAIL_WIDTH = 350;
+
+    public static final String HASH_PATTERN = "[0-9a-f]{64}";
+
+    private static final String DATA_URL_PREFIX = "data:";
+    private static final String BASE64_MARKER = ";base64,";
+    private static final String TYPE_SUFFIX = ".type";
+    private static final int SIGNATURE_LENGTH = 12;
+
+    private final AppProperties appProperties;
+
+    public String storeDataUrl(String category, String dataUrl) {
+        byte[] bytes = decodeDataUrl(dataUrl);
+        return store(category, bytes, typeOf(bytes));
+    }
+
+    /**
+     * 배너 원본과 목록용 썸네일을 함께 저장한다. 썸네일은 원본과 같은 해시로 찾는다.
+     */
+    public String storeStudyBanner(String dataUrl) {
+        byte[] bytes = decodeDataUrl(dataUrl);
+        ImageType type = typeOf(bytes);
+        String hash = store(STUDY, bytes, type);
+        if (!exists(STUDY_THUMBNAIL, hash)) {
+            byte[] thumbnail = ImageResizer.resize(bytes, THUMBNAIL_WIDTH);
+            write(STUDY_THUMBNAIL, hash, thumbnail, thumbnail == bytes ? type : ImageType.PNG);
+        }
+        return hash;
+    }
+
+    public String store(String category, byte[] bytes, ImageType type) {
+        checkSize(bytes.length);
+        String hash = sha256(bytes);
+        write(category, hash, bytes, type);
+        return hash;
+    }
+
+    /**
+     * 형식을 먼저 기록하고 이미지를 원자적으로 옮기므로, 이미지 파일이 보이면 형식도 이미 기록되어 있다.
+     */
+    private void write(String category, String hash, byte[] bytes, ImageType type) {
+        Path target = resolve(category, hash);
+        if (Files.exists(target)) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(target.getParent());
+            Files.write(typePath(target), type.getMediaType().getBytes(StandardCharsets.US_ASCII));
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            Files.write(temp, bytes);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Path resolve(String category, String hash) {
+        if (!hash.matches(HASH_PATTERN)) {
+            throw new IllegalArgumentException(hash + "는 올바른 이미지 키가 아닙니다.");
+        }
+        return Paths.get(appProperties.getImageDirectory(), category, hash.substring(0, 2), hash);
+    }
+
+    public boolean exists(String category, String hash) {
+        return Files.isRegularFile(resolve(category, hash));
+    }
+
+    /**
+     * 저장할 때 기록한 형식을 돌려준다. 형식 기록이 없는 예전 파일은 시그니처로 한 번 판별하며,
+     * 허용하지 않는 형식이면 비어 있다.
+     */
+    public Optional<ImageType> storedType(Path image) throws IOException {
+        Path typePath = typePath(image);
+        if (Files.isRegularFile(typePath)) {
+            return ImageType.ofMediaType(new String(Files.readAllBytes(typePath), StandardCharsets.US_ASCII));
+        }
+
+        try (InputStream inputStream = Files.newInputStream(image)) {
+            return ImageType.detect(inputStream.readNBytes(SIGNATURE_LENGTH));
+        }
+    }
+
+    byte[] decodeDataUrl(String dataUrl) {
+        int marker = dataUrl != null ? dataUrl.indexOf(BASE64_MARKER) : -1;
+        if (marker < 0 || !dataUrl.startsWith(DATA_URL_PREFIX)) {
+            throw new InvalidImageException("이미지 형식이 올바르지 않습니다.");
+        }
+        if (ImageType.ofMediaType(dataUrl.substring(DATA_URL_PREFIX.length(), marker)).isEmpty()) {
+            throw new InvalidImageException("PNG, JPEG, GIF, WebP 이미지만 올릴 수 있습니다.");
+        }
+
+        String encoded = dataUrl.substring(marker + BASE64_MARKER.length());
+        checkSize(encoded.length() / 4L * 3);
+        try {
+            return Base64.getDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidImageException("이미지 형식이 올바르지 않습니다.");
+        }
+    }
+
+    private void checkSize(long size) {
+        if (size > appProperties.getImageMaxSize().toBytes()) {
+            throw new InvalidImageException("이미지는 " + appProperties.getImageMaxSize().toKilobytes() + "KB 까지 올릴 수 있습니다.");
+        }
+    }
+
+    private static ImageType typeOf(byte[] bytes) {
+        return ImageType.detect(bytes)
+                .orElseThrow(() -> new InvalidImageException("PNG, JPEG, GIF, WebP 이미지만 올릴 수 있습니다."));
+    }
+
+    private static Path typePath(Path image) {
+        return image.resolveSibling(image.getFileName() + TYPE_SUFFIX);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.studyolle.image;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * 저장을 허용하는 이미지 형식. 형식은 선언된 MIME 타입이 아니라 파일 앞부분의 시그니처로 판별한다.
+ */
+public enum ImageType {
+
+    PNG("image/png") {
+        @Override
+        boolean matches(byte[] bytes) {
+            return startsWith(bytes, 0, new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+        }
+    },
+    JPEG("image/jpeg") {
+        @Override
+        boolean matches(byte[] bytes) {
+            return startsWith(bytes, 0, new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF});
+        }
+    },
+    GIF("image/gif") {
+        @Override
+        boolean matches(byte[] bytes) {
+            return startsWith(bytes, 0, ascii("GIF87a")) || startsWith(bytes, 0, ascii("GIF89a"));
+        }
+    },
+    WEBP("image/webp") {
+        @Override
+        boolean matches(byte[] bytes) {
+            return startsWith(bytes, 0, ascii("RIFF")) && startsWith(bytes, 8, ascii("WEBP"));
+        }
+    };
+
+    private final String mediaType;
+
+    ImageType(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    abstract boolean matches(byte[] bytes);
+
+    public static Optional<ImageType> detect(byte[] bytes) {
+        return Arrays.stream(values()).filter(type -> type.matches(bytes)).findFirst();
+    }
+
+    public static Optional<ImageType> ofMediaType(String mediaType) {
+        return Arrays.stream(values()).filter(type -> type.mediaType.equalsIgnoreCase(mediaType)).findFirst();
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, byte[] signature) {
+        if (bytes.length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (bytes[offset + i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
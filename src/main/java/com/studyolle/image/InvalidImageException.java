@@ -0,0 +1,11 @@
+package com.studyolle.image;
+
+/**
+ * 업로드된 이미지가 허용하지 않는 형식이거나 너무 커서 저장할 수 없을 때 던진다.
+ */
+public class InvalidImageException extends RuntimeException {
+
+    public InvalidImageException(String message) {
+        super(message);
+    }
+}
@@ -4,13 +4,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Slf4j
 @Profile("local")
 @Component
-public class ConsoleMailService implements EmailService{
+public class ConsoleMailService implements MailTransport {
 
     @Override
-    public void send(EmailForm emailForm) {
-        log.info("sent email: {}", emailForm.getMessage());
+    public void send(List<EmailForm> emailForms) {
+        emailForms.forEach(emailForm -> log.info("sent email: {}", emailForm.getMessage()));
     }
 }
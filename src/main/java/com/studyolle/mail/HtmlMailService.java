@@ -3,36 +3,71 @@ package com.studyolle.mail;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Profile("dev")
 @Component
 @RequiredArgsConstructor
-public class HtmlMailService implements EmailService {
+public class HtmlMailService implements MailTransport {
 
     private final JavaMailSender javaMailSender;
 
+    /**
+     * 메시지를 한 통씩 만들어 만들 수 없는 메일만 실패로 돌리고, 나머지는 하나의 연결로 보낸다.
+     * 실패한 메일은 {@link MailTransportException#getFailedEmails()}로 알린다.
+     */
     @Override
-    public void send(EmailForm emailForm) {
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, false, "UTF-8");
-            mimeMessageHelper.setTo(emailForm.getTo());
-            mimeMessageHelper.setSubject(emailForm.getSubject());
-            mimeMessageHelper.setText(emailForm.getMessage(), true);
-            javaMailSender.send(mimeMessage);
-
-            log.info("sent email to: {}", emailForm.getTo());
-        } catch (MessagingException e) {
-            log.info("failed sent email", e);
-            throw new RuntimeException(e);
+    public void send(List<EmailForm> emailForms) {
+        List<EmailForm> failed = new ArrayList<>();
+        List<EmailForm> built = new ArrayList<>(emailForms.size());
+        List<MimeMessage> mimeMessages = new ArrayList<>(emailForms.size());
+        Exception cause = null;
+        for (EmailForm emailForm : emailForms) {
+            try {
+                mimeMessages.add(createMimeMessage(emailForm));
+                built.add(emailForm);
+            } catch (MessagingException | IllegalArgumentException e) {
+                log.info("failed to build email to {}", emailForm.getTo(), e);
+                failed.add(emailForm);
+                cause = e;
+            }
+        }
+
+        if (!mimeMessages.isEmpty()) {
+            try {
+                javaMailSender.send(mimeMessages.toArray(new MimeMessage[0]));
+                log.info("sent {} emails", mimeMessages.size());
+            } catch (MailSendException e) {
+                for (int i = 0; i < mimeMessages.size(); i++) {
+                    if (e.getFailedMessages().isEmpty() || e.getFailedMessages().containsKey(mimeMessages.get(i))) {
+                        failed.add(built.get(i));
+                    }
+                }
+                log.info("failed sent {} of {} emails", failed.size(), emailForms.size(), e);
+                cause = e;
+            }
         }
 
+        if (!failed.isEmpty()) {
+            throw new MailTransportException(failed, cause);
+        }
+    }
+
+    private MimeMessage createMimeMessage(EmailForm emailForm) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, false, "UTF-8");
+        mimeMessageHelper.setTo(emailForm.getTo());
+        mimeMessageHelper.setSubject(emailForm.getSubject());
+        mimeMessageHelper.setText(emailForm.getMessage(), true);
+        return mimeMessage;
     }
 }
@@ -0,0 +1,84 @@
+package com.studyolle.mail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 메일 전송 워커. 워커는 {@link MailOutboxRelay}로 mail_outbox 에서 최대 batchSize 통씩 꺼내 보내며,
+ * 가득 찬 배치를 보냈으면 남은 메일이 없을 때까지 이어서 꺼낸다. 큐는 메모리가 아니라 mail_outbox 이므로
+ * 가득 차서 호출한 스레드가 직접 보내는 일은 없고, 재시도 간격도 행의 next_attempt_at 으로 남는다.
+ * 워커는 pollInterval 마다 깨어나고, 메일을 기록한 트랜잭션이 커밋되면 바로 깨어난다. purgeInterval 마다 보낸 지
+ * 오래된 행을 지운다.
+ */
+@Slf4j
+@Component
+public class MailDispatcher {
+
+    private final MailOutboxRelay mailOutboxRelay;
+    private final MailQueueProperties properties;
+
+    private ScheduledExecutorService workers;
+
+    public MailDispatcher(MailOutboxRelay mailOutboxRelay, MailQueueProperties properties) {
+        this.mailOutboxRelay = mailOutboxRelay;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger sequence = new AtomicInteger();
+        workers = Executors.newScheduledThreadPool(properties.getWorkers(), runnable -> {
+            Thread thread = new Thread(runnable, "mail-worker-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getPollInterval().toMillis();
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.scheduleWithFixedDelay(this::drain, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        long purgeInterval = properties.getPurgeInterval().toMillis();
+        workers.scheduleWithFixedDelay(this::purge, purgeInterval, purgeInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    public void wakeUp() {
+        try {
+            workers.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            log.debug("mail dispatcher is stopped");
+        }
+    }
+
+    void purge() {
+        try {
+            int purged = mailOutboxRelay.purgeSent();
+            if (purged > 0) {
+                log.info("purged {} sent emails", purged);
+            }
+        } catch (RuntimeException e) {
+            log.error("failed to purge mail outbox", e);
+        }
+    }
+
+    void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted() && mailOutboxRelay.relay() == properties.getBatchSize()) {
+                // 가득 찬 배치를 보냈다면 남은 메일이 더 있을 수 있다.
+            }
+        } catch (RuntimeException e) {
+            log.error("failed to relay mail outbox", e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.studyolle.mail;
+
+import com.studyolle.domain.MailOutbox;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * mail_outbox 에서 보낼 메일 한 배치를 꺼내 보낸다. 한 번에 batchSize 개의 행을 잠그고 가져와 next_attempt_at 을
+ * claimTimeout 뒤로 미뤄 두고 바로 커밋한다. 그래서 SMTP 로 보내는 동안에는 행 잠금도 DB 연결도 잡고 있지 않고, 다른
+ * 노드나 워커는 미뤄 둔 행을 꺼내지 않는다. 보낸 뒤 새 트랜잭션에서 보낸 시각이나 재시도 시각을 기록한다.
+ * PostgreSQL, MySQL 에서는 SKIP LOCKED 로 다른 노드가 꺼내는 중인 행을 건너뛴다. 보낸 뒤 기록하기 전에 죽으면
+ * claimTimeout 이 지나 다시 보내므로 전달은 at-least-once 이다. 보낸 행은 retention 이 지나면 {@link #purgeSent()}로
+ * 지운다. 언제 꺼내고 지울지는 {@link MailDispatcher}가 정한다.
+ */
+@Slf4j
+@Component
+public class MailOutboxRelay {
+
+    static final int MAX_BACKOFF_SHIFT = 16;
+
+    private static final Set<String> SKIP_LOCKED_DATABASES = Set.of("postgresql", "mysql", "mariadb");
+
+    private static final String CLAIM_QUERY = "select * from mail_outbox"
+            + " where sent_at is null and failed_at is null and next_attempt_at <= :now"
+            + " order by id limit :limit for update";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final MailTransport mailTransport;
+    private final MailOutboxRepository mailOutboxRepository;
+    private final MailQueueProperties properties;
+
+    private String claimQuery;
+
+    public MailOutboxRelay(DataSource dataSource, PlatformTransactionManager transactionManager,
+                           MailTransport mailTransport, MailOutboxRepository mailOutboxRepository,
+                           MailQueueProperties properties) {
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailTransport = mailTransport;
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() throws MetaDataAccessException {
+        String databaseName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        claimQuery = SKIP_LOCKED_DATABASES.contains(databaseName.toLowerCase(Locale.ROOT))
+                ? CLAIM_QUERY + " skip locked" : CLAIM_QUERY;
+    }
+
+    /**
+     * 보낼 메일 한 배치를 꺼내 보낸다.
+     *
+     * @return 가져온 메일 수
+     */
+    public int relay() {
+        List<MailOutbox> batch = transactionTemplate.execute(status -> claim());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> failedIds = deliver(batch);
+        transactionTemplate.executeWithoutResult(status ->
+                mailOutboxRepository.findAllById(batch.stream().map(MailOutbox::getId).collect(Collectors.toList()))
+                        .forEach(mailOutbox -> {
+                            if (failedIds.contains(mailOutbox.getId())) {
+                                retryLater(mailOutbox);
+                            } else {
+                                mailOutbox.sent();
+                            }
+                        }));
+        return batch.size();
+    }
+
+    /**
+     * 보낸 지 retention 이 지난 행을 지운다.
+     *
+     * @return 지운 행 수
+     */
+    public int purgeSent() {
+        return mailOutboxRepository.deleteSentBefore(LocalDateTime.now().minus(properties.getRetention()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MailOutbox> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<MailOutbox> batch = entityManager.createNativeQuery(claimQuery, MailOutbox.class)
+                .setParameter("now", now)
+                .setParameter("limit", properties.getBatchSize())
+                .getResultList();
+        // 보내는 동안 다른 워커가 다시 꺼내지 않도록 미뤄 둔다. 기록하기 전에 죽으면 이 시각 뒤에 다시 보낸다.
+        batch.forEach(mailOutbox -> mailOutbox.setNextAttemptAt(now.plus(properties.getClaimTimeout())));
+        return batch;
+    }
+
+    /**
+     * @return 보내지 못한 메일의 id
+     */
+    private Set<Long> deliver(List<MailOutbox> batch) {
+        List<EmailForm> emailForms = batch.stream()
+                .map(mailOutbox -> EmailForm.builder()
+                        .to(mailOutbox.getRecipient())
+                        .subject(mailOutbox.getSubject())
+                        .message(mailOutbox.getMessage())
+                        .build())
+                .collect(Collectors.toList());
+
+        Set<Long> failedIds = new HashSet<>();
+        try {
+            mailTransport.send(emailForms);
+        } catch (MailTransportException e) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (e.getFailedEmails().contains(emailForms.get(i))) {
+                    failedIds.add(batch.get(i).getId());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.info("failed sent {} emails", batch.size(), e);
+            batch.forEach(mailOutbox -> failedIds.add(mailOutbox.getId()));
+        }
+        return failedIds;
+    }
+
+    private void retryLater(MailOutbox mailOutbox) {
+        mailOutbox.failed(properties.getMaxAttempts(), backoff(properties.getInitialBackoff(), mailOutbox.getAttempts()));
+        if (mailOutbox.getFailedAt() != null) {
+            log.error("giving up email to {} after {} attempts", mailOutbox.getRecipient(), mailOutbox.getAttempts());
+        }
+    }
+
+    /**
+     * 시도할 때마다 두 배로 늘리되, maxAttempts 를 크게 잡아도 넘치지 않도록 2^{@value #MAX_BACKOFF_SHIFT} 배에서 멈춘다.
+     */
+    static Duration backoff(Duration initialBackoff, int attempts) {
+        return initialBackoff.multipliedBy(1L << Math.min(attempts, MAX_BACKOFF_SHIFT));
+    }
+}
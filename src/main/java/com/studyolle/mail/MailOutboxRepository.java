@@ -0,0 +1,18 @@
+package com.studyolle.mail;
+
+import com.studyolle.domain.MailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Transactional(readOnly = true)
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from MailOutbox m where m.sentAt < :before")
+    int deleteSentBefore(LocalDateTime before);
+}
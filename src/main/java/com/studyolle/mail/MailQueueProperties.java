@@ -0,0 +1,35 @@
+package com.studyolle.mail;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("app.mail")
+public class MailQueueProperties {
+
+    private int workers = 2;
+
+    private int batchSize = 20;
+
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    private int maxAttempts = 5;
+
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    /**
+     * 꺼낸 메일을 보내고 기록할 때까지 다른 워커가 다시 꺼내지 않고 기다리는 시간.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(5);
+
+    /**
+     * 보낸 메일을 mail_outbox 에 남겨 두는 기간.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    private Duration purgeInterval = Duration.ofHours(1);
+}
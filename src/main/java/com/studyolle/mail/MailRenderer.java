@@ -0,0 +1,40 @@
+package com.studyolle.mail;
+
+import com.studyolle.config.AppProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * 메일 본문 렌더링. 템플릿은 시작할 때 한 번만 Thymeleaf 로 처리해 {@link MailTemplate}로 만들어 두고,
+ * 메일마다 받는 사람별 값만 채워 넣는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MailRenderer {
+
+    private static final String SIMPLE_LINK = "mail/simple-link";
+
+    private final TemplateEngine templateEngine;
+    private final AppProperties appProperties;
+
+    private MailTemplate simpleLink;
+
+    @PostConstruct
+    public void compileTemplates() {
+        Context context = new Context();
+        context.setVariable("host", appProperties.getHost());
+        for (String variable : List.of("nickname", "message", "link", "linkName")) {
+            context.setVariable(variable, MailTemplate.placeholder(variable));
+        }
+        simpleLink = MailTemplate.compile(templateEngine.process(SIMPLE_LINK, context));
+    }
+
+    public String render(SimpleLinkMail mail) {
+        return simpleLink.render(mail.toVariables());
+    }
+}
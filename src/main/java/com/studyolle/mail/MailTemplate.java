@@ -0,0 +1,65 @@
+package com.studyolle.mail;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 한 번 렌더링한 템플릿을 고정된 조각과 변수 자리로 나눠 둔 것. 렌더링은 조각 사이에 HTML 이스케이프한 값을
+ * 이어 붙이기만 하므로 템플릿을 다시 해석하지 않는다. 변수는 th:text 처럼 그대로 출력되는 경우에만 쓸 수 있다.
+ */
+class MailTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("__mail_var_(\\w+)__");
+
+    private final String[] segments;
+    private final String[] variables;
+    private final int staticLength;
+
+    private MailTemplate(String[] segments, String[] variables) {
+        this.segments = segments;
+        this.variables = variables;
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        this.staticLength = length;
+    }
+
+    static String placeholder(String variable) {
+        return "__mail_var_" + variable + "__";
+    }
+
+    /**
+     * {@link #placeholder(String)}를 값으로 넣어 렌더링한 결과에서 조각과 변수 자리를 찾는다.
+     */
+    static MailTemplate compile(String rendered) {
+        List<String> segments = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(rendered);
+        int position = 0;
+        while (matcher.find()) {
+            segments.add(rendered.substring(position, matcher.start()));
+            variables.add(matcher.group(1));
+            position = matcher.end();
+        }
+        segments.add(rendered.substring(position));
+        return new MailTemplate(segments.toArray(String[]::new), variables.toArray(String[]::new));
+    }
+
+    String render(Map<String, String> values) {
+        StringBuilder builder = new StringBuilder(staticLength + 64 * variables.length);
+        for (int i = 0; i < variables.length; i++) {
+            builder.append(segments[i]);
+            String value = values.get(variables[i]);
+            if (value != null) {
+                builder.append(HtmlUtils.htmlEscape(value, "UTF-8"));
+            }
+        }
+        return builder.append(segments[variables.length]).toString();
+    }
+}
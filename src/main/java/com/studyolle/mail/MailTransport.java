@@ -0,0 +1,11 @@
+package com.studyolle.mail;
+
+import java.util.List;
+
+/**
+ * 실제로 메일을 내보내는 전송 계층. 여러 통을 한 번에 넘기면 가능한 한 하나의 연결로 보낸다.
+ */
+public interface MailTransport {
+
+    void send(List<EmailForm> emailForms);
+}
@@ -0,0 +1,16 @@
+package com.studyolle.mail;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class MailTransportException extends RuntimeException {
+
+    private final List<EmailForm> failedEmails;
+
+    public MailTransportException(List<EmailForm> failedEmails, Throwable cause) {
+        super(failedEmails.size() + "통의 메일을 보내지 못했습니다.", cause);
+        this.failedEmails = failedEmails;
+    }
+}
@@ -0,0 +1,45 @@
+package com.studyolle.mail;
+
+import com.studyolle.domain.MailOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * 메일을 호출한 쪽의 트랜잭션 안에서 mail_outbox 테이블에 기록한다. 계정 변경과 함께 커밋되거나 함께 롤백되고,
+ * 실제 전송은 {@link MailDispatcher}가 맡는다. 커밋 직후에는 워커를 깨워 다음 폴링을 기다리지 않게 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxEmailService implements EmailService {
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final MailDispatcher mailDispatcher;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public void send(EmailForm emailForm) {
+        LocalDateTime now = LocalDateTime.now();
+        mailOutboxRepository.save(MailOutbox.builder()
+                .recipient(emailForm.getTo())
+                .subject(emailForm.getSubject())
+                .message(emailForm.getMessage())
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+        eventPublisher.publishEvent(new MailQueuedEvent());
+    }
+
+    @TransactionalEventListener
+    public void wakeUpDispatcher(MailQueuedEvent event) {
+        mailDispatcher.wakeUp();
+    }
+
+    static class MailQueuedEvent {
+    }
+}
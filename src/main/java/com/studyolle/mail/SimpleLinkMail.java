@@ -0,0 +1,23 @@
+package com.studyolle.mail;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * mail/simple-link 템플릿에 들어가는 값.
+ */
+@Data
+@Builder
+public class SimpleLinkMail {
+
+    private String nickname;
+    private String message;
+    private String link;
+    private String linkName;
+
+    Map<String, String> toVariables() {
+        return Map.of("nickname", nickname, "message", message, "link", link, "linkName", linkName);
+    }
+}
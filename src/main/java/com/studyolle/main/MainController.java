@@ -1,19 +1,24 @@
 package com.studyolle.main;
 
 import com.studyolle.account.CurrentUser;
-import com.studyolle.domain.Account;
-import lombok.ToString;
+import com.studyolle.account.UserAccount;
+import com.studyolle.study.StudyFeed;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @Controller
+@RequiredArgsConstructor
 public class MainController {
 
+    private final StudyFeed studyFeed;
+
     @GetMapping("/")
-    public String home(@CurrentUser Account account, Model model) {
+    public String home(@CurrentUser UserAccount account, Model model) {
         if (account != null) {
-            model.addAttribute(account);
+            model.addAttribute("account", account);
+            model.addAttribute("studyList", studyFeed.get(account.getId()));
 
             return "index";
         }
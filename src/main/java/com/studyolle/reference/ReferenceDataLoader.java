@@ -0,0 +1,167 @@
+package com.studyolle.reference;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 애플리케이션이 뜬 뒤 클래스패스의 참조 데이터 파일을 DB 에 반영한다. 파일을 한 번 흘려 읽어 SHA-256 을 구하고,
+ * 지난번에 반영한 해시와 같으면 건너뛴다. 다르면 다시 흘려 읽으며 BATCH_SIZE 행씩 {@link ReferenceDataset#upsert}에
+ * 넘기고, 데이터셋 하나를 한 트랜잭션으로 반영한 뒤 해시를 남긴다. jar 안의 파일도 스트림으로 읽으므로 그대로 동작한다.
+ * <p>
+ * 요청을 받기 전에 DB 에 이미 있는 행으로 {@link ReferenceDataset#loaded()}를 한 번 불러 둔다. 여러 노드가 함께 떠도
+ * 해시 행을 먼저 만들어 두고 select ... for update 로 잠근 뒤 비교하므로 한 노드만 반영하고 나머지는 건너뛴다.
+ */
+@Slf4j
+@Component
+public class ReferenceDataLoader {
+
+    static final int BATCH_SIZE = 500;
+
+    private final List<ReferenceDataset> datasets;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+
+    private boolean upsertSupported;
+
+    public ReferenceDataLoader(List<ReferenceDataset> datasets, JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager, DataSource dataSource) {
+        this.datasets = datasets;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void loadStored() throws MetaDataAccessException {
+        String databaseName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        upsertSupported = "PostgreSQL".equalsIgnoreCase(databaseName);
+        datasets.forEach(ReferenceDataset::loaded);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        datasets.forEach(this::load);
+    }
+
+    /**
+     * @return 반영한 행 수. 파일이 바뀌지 않았으면 0
+     */
+    public int load(ReferenceDataset dataset) {
+        String hash = hash(dataset);
+        Integer loaded = transactionTemplate.execute(status -> {
+            String stored = lock(dataset.getName());
+            if (hash.equals(stored)) {
+                return 0;
+            }
+
+            int rows = upsert(dataset);
+            jdbcTemplate.update("update reference_data_version set hash = ?, loaded_at = ? where name = ?",
+                    hash, LocalDateTime.now(), dataset.getName());
+            return rows;
+        });
+        if (loaded != null && loaded > 0) {
+            log.info("loaded {} rows of {}", loaded, dataset.getName());
+        }
+        dataset.loaded();
+        return loaded == null ? 0 : loaded;
+    }
+
+    /**
+     * 이름의 해시 행을 select ... for update 로 잠그고 저장된 해시를 돌려준다. 트랜잭션 안에서 불러야 하고 잠금은
+     * 트랜잭션이 끝날 때 풀린다. 여러 노드가 함께 뜰 때 한 노드만 해야 하는 일을 이 잠금으로 차례로 하게 한다.
+     */
+    public String lock(String name) {
+        insertVersionIfAbsent(name);
+        return jdbcTemplate.queryForObject("select hash from reference_data_version where name = ? for update",
+                String.class, name);
+    }
+
+    /**
+     * 잠글 해시 행을 빈 해시로 만들어 둔다. 다른 노드가 먼저 만들었으면 그 행을 쓴다.
+     */
+    private void insertVersionIfAbsent(String name) {
+        if (upsertSupported) {
+            // PostgreSQL 은 실패한 문장이 트랜잭션 전체를 중단시키므로 중복 키를 잡아 넘어갈 수 없다.
+            jdbcTemplate.update("insert into reference_data_version (name, hash, loaded_at) values (?, '', ?)"
+                    + " on conflict (name) do nothing", name, LocalDateTime.now());
+            return;
+        }
+        try {
+            jdbcTemplate.update("insert into reference_data_version (name, hash, loaded_at) select ?, '', ?"
+                    + " where not exists (select 1 from reference_data_version where name = ?)", name, LocalDateTime.now(), name);
+        } catch (DuplicateKeyException e) {
+            // 다른 노드가 먼저 만들었다.
+        }
+    }
+
+    private int upsert(ReferenceDataset dataset) {
+        int rows = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                dataset.getResource().getInputStream(), StandardCharsets.UTF_8))) {
+            List<String[]> batch = new ArrayList<>(BATCH_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(line.split(","));
+                if (batch.size() == BATCH_SIZE) {
+                    dataset.upsert(batch);
+                    rows += batch.size();
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                dataset.upsert(batch);
+                rows += batch.size();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private String hash(ReferenceDataset dataset) {
+        try (InputStream in = new DigestInputStream(dataset.getResource().getInputStream(),
+                MessageDigest.getInstance("SHA-256"))) {
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // 다이제스트만 구한다.
+            }
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : ((DigestInputStream) in).getMessageDigest().digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
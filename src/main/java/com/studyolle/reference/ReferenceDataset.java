@@ -0,0 +1,29 @@
+package com.studyolle.reference;
+
+import org.springframework.core.io.Resource;
+
+import java.util.List;
+
+/**
+ * {@link ReferenceDataLoader}가 읽어 들이는 참조 데이터. 쉼표로만 나눈 단순한 CSV 한 파일이 한 데이터셋이다.
+ */
+public interface ReferenceDataset {
+
+    /**
+     * 내용 해시를 남길 이름. 데이터셋마다 달라야 한다.
+     */
+    String getName();
+
+    Resource getResource();
+
+    /**
+     * 파일의 행 한 배치를 반영한다. 이미 있는 행은 고치고 없는 행은 더한다. 데이터셋 전체를 반영하는 트랜잭션 안에서 불린다.
+     */
+    void upsert(List<String[]> rows);
+
+    /**
+     * 요청을 받기 전에 DB 에 이미 있는 행으로 한 번, 파일이 바뀌지 않아 건너뛴 경우를 포함해 로딩이 끝나면 한 번 더 불린다.
+     */
+    default void loaded() {
+    }
+}
@@ -0,0 +1,58 @@
+package com.studyolle.search;
+
+import com.studyolle.account.CurrentUser;
+import com.studyolle.account.UserAccount;
+import com.studyolle.zone.ZoneCatalog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Controller
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final StudySearchIndex studySearchIndex;
+    private final ZoneCatalog zoneCatalog;
+
+    @GetMapping("/search/study")
+    public String searchStudy(@CurrentUser UserAccount account, @ModelAttribute("search") StudySearchForm search,
+                              @PageableDefault(size = 9) Pageable pageable, Model model) {
+        StudySearchResult result = studySearchIndex.search(search.getKeyword(), search.getTag(), search.getZone(), pageable);
+
+        Map<Long, String> zoneNames = new HashMap<>();
+        Stream.concat(search.getZone().stream(), result.getZoneFacets().keySet().stream())
+                .forEach(id -> zoneCatalog.findById(id)
+                        .ifPresent(zone -> zoneNames.put(id, zoneCatalog.getDisplayName(zone))));
+
+        if (account != null) {
+            model.addAttribute("account", account);
+        }
+        model.addAttribute("zoneNames", zoneNames);
+        model.addAttribute("result", result);
+        model.addAttribute("studyPage", result.getStudies());
+
+        return "search";
+    }
+
+    @GetMapping("/search/tag/{title}")
+    public String searchTag(@PathVariable String title, RedirectAttributes attributes) {
+        attributes.addAttribute("tag", title);
+        return "redirect:/search/study";
+    }
+
+    @GetMapping("/search/zone/{id}")
+    public String searchZone(@PathVariable Long id, RedirectAttributes attributes) {
+        attributes.addAttribute("zone", id);
+        return "redirect:/search/study";
+    }
+}
@@ -0,0 +1,47 @@
+package com.studyolle.search;
+
+import com.studyolle.domain.Study;
+import com.studyolle.domain.Tag;
+import com.studyolle.domain.Zone;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 검색 결과 목록을 그리는 데 필요한 만큼만 담은 스터디 사본. 색인에 들어간 뒤에는 바뀌지 않고,
+ * 스터디가 바뀌면 새 문서로 통째로 갈아 끼운다. 본문(fullDescription)은 색인할 때만 쓰고 들고 있지 않는다.
+ */
+@Getter
+@Builder
+public class StudyDocument {
+
+    private final Long id;
+
+    private final String path;
+
+    private final String title;
+
+    private final String shortDescription;
+
+    private final List<String> tagTitles;
+
+    private final Set<Long> zoneIds;
+
+    private final LocalDateTime publishedDateTime;
+
+    public static StudyDocument of(Study study) {
+        return StudyDocument.builder()
+                .id(study.getId())
+                .path(study.getPath())
+                .title(study.getTitle())
+                .shortDescription(study.getShortDescription())
+                .tagTitles(study.getTags().stream().map(Tag::getTitle).sorted().collect(Collectors.toList()))
+                .zoneIds(study.getZones().stream().map(Zone::getId).collect(Collectors.toSet()))
+                .publishedDateTime(study.getPublishedDateTime())
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.studyolle.search;
+
+import lombok.Data;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 검색 조건. 화면에서 패싯을 더하거나 빼는 링크와 페이지 링크는 지금 조건에서 하나만 바꾼 URL 이다.
+ */
+@Data
+public class StudySearchForm {
+
+    private String keyword = "";
+
+    private List<String> tag = new ArrayList<>();
+
+    private List<Long> zone = new ArrayList<>();
+
+    public String withTag(String title) {
+        List<String> tags = new ArrayList<>(tag);
+        tags.add(title);
+        return toUrl(tags, zone, 0);
+    }
+
+    public String withoutTag(String title) {
+        return toUrl(tag.stream().filter(t -> !t.equals(title)).collect(Collectors.toList()), zone, 0);
+    }
+
+    public String withZone(Long zoneId) {
+        List<Long> zones = new ArrayList<>(zone);
+        zones.add(zoneId);
+        return toUrl(tag, zones, 0);
+    }
+
+    public String withoutZone(Long zoneId) {
+        return toUrl(tag, zone.stream().filter(z -> !z.equals(zoneId)).collect(Collectors.toList()), 0);
+    }
+
+    public String toPage(int page) {
+        return toUrl(tag, zone, page);
+    }
+
+    private String toUrl(List<String> tags, List<Long> zones, int page) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromPath("/search/study");
+        if (keyword != null && !keyword.isBlank()) {
+            builder.queryParam("keyword", keyword);
+        }
+        tags.forEach(title -> builder.queryParam("tag", title));
+        zones.forEach(zoneId -> builder.queryParam("zone", zoneId));
+        if (page > 0) {
+            builder.queryParam("page", page);
+        }
+        return builder.encode().toUriString();
+    }
+}
@@ -0,0 +1,296 @@
+package com.studyolle.search;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * 공개된 스터디의 메모리 역색인. 제목, 짧은 소개, 본문, 태그 제목의 토큰마다 (문서 번호, 가중치) 목록을 두고,
+ * 태그와 지역은 같은 맵에 토큰과 섞이지 않는 키로 넣어 필터와 패싯 계산에 쓴다.
+ *
+ * <p>검색어의 모든 토큰을 포함하는 스터디만 찾고(AND), 토큰은 접두어로도 맞춰 보되 점수를 낮춘다.
+ * 점수는 필드별 가중치를 더한 값을 BM25 식으로 포화시켜 idf 와 곱한 합이다. 검색어가 없으면 최근 공개된 순서다.
+ *
+ * <p>스터디를 다시 색인하면 새 문서 번호를 받고 예전 번호는 지운 것으로 표시한다. 지운 번호가 살아 있는 문서보다
+ * 많아지면 목록을 한꺼번에 정리한다.
+ */
+@Component
+public class StudySearchIndex {
+
+    static final float TITLE_WEIGHT = 3f;
+    static final float TAG_WEIGHT = 2.5f;
+    static final float SHORT_DESCRIPTION_WEIGHT = 1.5f;
+    static final float FULL_DESCRIPTION_WEIGHT = 1f;
+
+    private static final float PREFIX_MATCH_BOOST = 0.5f;
+    private static final float K1 = 1.2f;
+    private static final int FACET_LIMIT = 20;
+    private static final int MIN_REMOVED_TO_COMPACT = 1024;
+
+    private static final String TAG_KEY = "\u0000tag:";
+    private static final String ZONE_KEY = "\u0000zone:";
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<StudyDocument> documents = new ArrayList<>();
+    private long[] publishedAt = new long[1024];
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private int removed;
+
+    public void index(StudyDocument document, String fullDescription) {
+        Map<String, Float> weights = new HashMap<>();
+        addTokens(weights, document.getTitle(), TITLE_WEIGHT);
+        addTokens(weights, document.getShortDescription(), SHORT_DESCRIPTION_WEIGHT);
+        addTokens(weights, fullDescription, FULL_DESCRIPTION_WEIGHT);
+        document.getTagTitles().forEach(title -> addTokens(weights, title, TAG_WEIGHT));
+        document.getTagTitles().forEach(title -> weights.put(TAG_KEY + title, 0f));
+        document.getZoneIds().forEach(zoneId -> weights.put(ZONE_KEY + zoneId, 0f));
+
+        lock.writeLock().lock();
+        try {
+            removeOrdinal(ordinals.get(document.getId()));
+            int ordinal = documents.size();
+            documents.add(document);
+            if (ordinal == publishedAt.length) {
+                publishedAt = Arrays.copyOf(publishedAt, ordinal + (ordinal >> 1));
+            }
+            publishedAt[ordinal] = epochSecondOf(document.getPublishedDateTime());
+            ordinals.put(document.getId(), ordinal);
+            weights.forEach((key, weight) -> postings.computeIfAbsent(key, k -> new Postings()).add(ordinal, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long studyId) {
+        lock.writeLock().lock();
+        try {
+            removeOrdinal(ordinals.remove(studyId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param keyword 비어 있으면 모든 스터디
+     * @param tags    모두 달려 있는 스터디만
+     * @param zoneIds 하나라도 걸쳐 있는 스터디만, 비어 있으면 지역은 따지지 않는다
+     */
+    public StudySearchResult search(String keyword, Collection<String> tags, Collection<Long> zoneIds, Pageable pageable) {
+        List<String> terms = new ArrayList<>(Tokenizer.distinctTokens(keyword));
+
+        lock.readLock().lock();
+        try {
+            float[] scores = terms.isEmpty() ? null : new float[documents.size()];
+            BitSet matches = terms.isEmpty() ? allDocuments() : matchAll(terms, scores);
+            for (String tag : tags) {
+                matches.and(ordinalsOf(TAG_KEY + tag));
+            }
+            if (!zoneIds.isEmpty()) {
+                BitSet inZones = new BitSet(documents.size());
+                zoneIds.forEach(zoneId -> inZones.or(ordinalsOf(ZONE_KEY + zoneId)));
+                matches.and(inZones);
+            }
+
+            return new StudySearchResult(
+                    new PageImpl<>(topDocuments(matches, scores, pageable), pageable, matches.cardinality()),
+                    facets(TAG_KEY, matches, Function.identity()), facets(ZONE_KEY, matches, Long::valueOf));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long epochSecondOf(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+    }
+
+    private void addTokens(Map<String, Float> weights, String text, float weight) {
+        Tokenizer.tokenize(text).forEach(token -> weights.merge(token, weight, Float::sum));
+    }
+
+    private void removeOrdinal(Integer ordinal) {
+        if (ordinal == null) {
+            return;
+        }
+        documents.set(ordinal, null);
+        if (++removed >= MIN_REMOVED_TO_COMPACT && removed > ordinals.size()) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        int[] remap = new int[documents.size()];
+        List<StudyDocument> live = new ArrayList<>(ordinals.size());
+        for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+            StudyDocument document = documents.get(ordinal);
+            remap[ordinal] = document == null ? -1 : live.size();
+            if (document != null) {
+                ordinals.put(document.getId(), live.size());
+                publishedAt[live.size()] = publishedAt[ordinal];
+                live.add(document);
+            }
+        }
+        documents.clear();
+        documents.addAll(live);
+        postings.values().removeIf(p -> p.remap(remap) == 0);
+        removed = 0;
+    }
+
+    private BitSet allDocuments() {
+        BitSet all = new BitSet(documents.size());
+        for (int ordinal : ordinals.values()) {
+            all.set(ordinal);
+        }
+        return all;
+    }
+
+    private BitSet ordinalsOf(String key) {
+        BitSet result = new BitSet(documents.size());
+        Postings p = postings.get(key);
+        if (p != null) {
+            for (int i = 0; i < p.size; i++) {
+                result.set(p.ordinals[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 검색어 토큰을 차례로 훑으면서 앞의 토큰을 모두 맞춘 문서만 점수를 쌓는다. 한 토큰이 여러 색인 토큰의 접두어이면
+     * 그 점수를 모두 더한다.
+     */
+    private BitSet matchAll(List<String> terms, float[] scores) {
+        int[] matchedTerms = new int[documents.size()];
+        float documentCount = ordinals.size();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            for (Map.Entry<String, Postings> entry : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+                float boost = entry.getKey().equals(term) ? 1f : PREFIX_MATCH_BOOST;
+                Postings p = entry.getValue();
+                float idf = (float) Math.log(1 + (documentCount - p.size + 0.5f) / (p.size + 0.5f));
+                for (int j = 0; j < p.size; j++) {
+                    int ordinal = p.ordinals[j];
+                    if (matchedTerms[ordinal] == i || matchedTerms[ordinal] == i + 1) {
+                        matchedTerms[ordinal] = i + 1;
+                        scores[ordinal] += boost * idf * p.weights[j] * (K1 + 1) / (p.weights[j] + K1);
+                    }
+                }
+            }
+        }
+
+        BitSet matches = new BitSet(documents.size());
+        for (int ordinal = 0; ordinal < matchedTerms.length; ordinal++) {
+            if (matchedTerms[ordinal] == terms.size() && documents.get(ordinal) != null) {
+                matches.set(ordinal);
+            }
+        }
+        return matches;
+    }
+
+    private List<StudyDocument> topDocuments(BitSet matches, float[] scores, Pageable pageable) {
+        long wanted = pageable.getOffset() + pageable.getPageSize();
+        if (pageable.getOffset() >= matches.cardinality()) {
+            return List.of();
+        }
+
+        Comparator<Integer> byPublished = Comparator.comparingLong(ordinal -> publishedAt[ordinal]);
+        Comparator<Integer> ascending = scores == null ? byPublished
+                : Comparator.<Integer>comparingDouble(ordinal -> scores[ordinal]).thenComparing(byPublished);
+
+        PriorityQueue<Integer> top = new PriorityQueue<>(ascending);
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            if (top.size() < wanted) {
+                top.add(ordinal);
+            } else if (ascending.compare(ordinal, top.peek()) > 0) {
+                top.poll();
+                top.add(ordinal);
+            }
+        }
+
+        List<StudyDocument> page = new ArrayList<>(top.size());
+        while (top.size() > pageable.getOffset()) {
+            page.add(documents.get(top.poll()));
+        }
+        Collections.reverse(page);
+        return page;
+    }
+
+    /**
+     * 태그나 지역 키마다 문서 목록을 훑어 검색 결과에 든 문서 수를 센다. 결과 문서를 하나씩 꺼내 세는 것보다
+     * 박싱과 맵 갱신이 없어 결과가 많을 때 훨씬 빠르다.
+     */
+    private <K extends Comparable<K>> Map<K, Integer> facets(String prefix, BitSet matches, Function<String, K> keyOf) {
+        Map<K, Integer> counts = new HashMap<>();
+        for (Map.Entry<String, Postings> entry : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            Postings p = entry.getValue();
+            int count = 0;
+            for (int i = 0; i < p.size; i++) {
+                if (matches.get(p.ordinals[i])) {
+                    count++;
+                }
+            }
+            if (count > 0) {
+                counts.put(keyOf.apply(entry.getKey().substring(prefix.length())), count);
+            }
+        }
+
+        Map<K, Integer> result = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<K, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(FACET_LIMIT)
+                .forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    /**
+     * 한 토큰이 나온 문서 번호와 가중치. 문서 번호는 늘 커지는 순서로만 더해지므로 정렬된 채로 남는다.
+     */
+    private static class Postings {
+
+        private int[] ordinals = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int ordinal, float weight) {
+            if (size == ordinals.length) {
+                int capacity = size + (size >> 1) + 1;
+                ordinals = Arrays.copyOf(ordinals, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            ordinals[size] = ordinal;
+            weights[size] = weight;
+            size++;
+        }
+
+        int remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = remap[ordinals[i]];
+                if (ordinal >= 0) {
+                    ordinals[kept] = ordinal;
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return size;
+        }
+    }
+}
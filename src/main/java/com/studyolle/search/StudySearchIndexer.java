@@ -0,0 +1,80 @@
+package com.studyolle.search;
+
+import com.studyolle.domain.Study;
+import com.studyolle.study.StudyRepository;
+import com.studyolle.study.StudyUpdatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * {@link StudySearchIndex}를 DB 와 맞춘다. 애플리케이션이 뜨면 공개된 스터디를 id 순으로 나눠 읽어 모두 색인하고,
+ * 이후에는 {@link StudyUpdatedEvent}를 낸 트랜잭션이 커밋된 뒤에 그 스터디만 다시 읽어 갈아 끼운다.
+ * 롤백된 변경은 색인에 들어가지 않는다.
+ */
+@Slf4j
+@Component
+public class StudySearchIndexer {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final StudyRepository studyRepository;
+    private final StudySearchIndex studySearchIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    public StudySearchIndexer(StudyRepository studyRepository, StudySearchIndex studySearchIndex,
+                              PlatformTransactionManager transactionManager) {
+        this.studyRepository = studyRepository;
+        this.studySearchIndex = studySearchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexAll() {
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            ids = studyRepository.findPublishedIdsAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+            if (!ids.isEmpty()) {
+                index(ids);
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == BATCH_SIZE);
+        log.info("indexed {} studies for search", studySearchIndex.size());
+    }
+
+    @TransactionalEventListener
+    public void reindex(StudyUpdatedEvent event) {
+        if (index(List.of(event.getStudyId())) == 0) {
+            studySearchIndex.remove(event.getStudyId());
+        }
+    }
+
+    /**
+     * @return 색인한 스터디 수. 공개되지 않은 스터디는 색인에서 뺀다.
+     */
+    private int index(List<Long> ids) {
+        return transactionTemplate.execute(status -> {
+            int indexed = 0;
+            for (Study study : studyRepository.findForSearchByIdIn(ids)) {
+                if (study.isPublished()) {
+                    studySearchIndex.index(StudyDocument.of(study), study.getFullDescription());
+                    indexed++;
+                } else {
+                    studySearchIndex.remove(study.getId());
+                }
+            }
+            return indexed;
+        });
+    }
+}
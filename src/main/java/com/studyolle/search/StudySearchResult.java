@@ -0,0 +1,21 @@
+package com.studyolle.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+/**
+ * 검색 결과 한 페이지와, 필터까지 적용한 전체 결과에 대한 태그와 지역별 스터디 수. 패싯 맵은 많은 순서로 들어 있다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class StudySearchResult {
+
+    private final Page<StudyDocument> studies;
+
+    private final Map<String, Integer> tagFacets;
+
+    private final Map<Long, Integer> zoneFacets;
+}
@@ -0,0 +1,48 @@
+package com.studyolle.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 글자와 숫자가 이어진 구간을 하나의 토큰으로 자르고 소문자로 바꾼다. 본문은 에디터가 만든 HTML 이라
+ * 태그와 엔티티를 먼저 걷어 낸다. 한국어 조사는 떼어 내지 않는 대신 검색할 때 접두어로 맞춰 본다.
+ */
+final class Tokenizer {
+
+    private static final Pattern MARKUP = Pattern.compile("<[^>]*>|&[#\\w]+;");
+
+    private Tokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        String plain = MARKUP.matcher(text).replaceAll(" ").toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i < plain.length(); i++) {
+            if (Character.isLetterOrDigit(plain.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(plain.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(plain.substring(start));
+        }
+        return tokens;
+    }
+
+    static Set<String> distinctTokens(String text) {
+        return new LinkedHashSet<>(tokenize(text));
+    }
+}
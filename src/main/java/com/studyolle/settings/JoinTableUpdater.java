@@ -0,0 +1,126 @@
+package com.studyolle.settings;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * {@code @ManyToMany} 조인 테이블의 한 소유자 행들을 원하는 집합으로 맞춘다. 현재 값을 한 번 읽어 차이만
+ * 배치 delete / insert 로 반영하므로 엔티티와 컬렉션을 읽지 않는다. 호출하는 쪽의 트랜잭션에 참여하며,
+ * 같은 트랜잭션에서 이미 읽어 둔 컬렉션에는 반영되지 않는다. 같은 소유자를 동시에 맞춰도 이미 있는 행은
+ * 건너뛰므로 중복 키 오류가 나지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class JoinTableUpdater {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final DataSource dataSource;
+
+    private boolean upsertSupported;
+
+    @PostConstruct
+    public void detectUpsertSupport() throws MetaDataAccessException {
+        String databaseName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        upsertSupported = "PostgreSQL".equalsIgnoreCase(databaseName);
+    }
+
+    public void add(JoinTable joinTable, Long ownerId, Long valueId) {
+        entityManager.flush();
+        insertIfAbsent(joinTable, List.<Object[]>of(new Object[]{ownerId, valueId}));
+    }
+
+    public void remove(JoinTable joinTable, Long ownerId, Long valueId) {
+        entityManager.flush();
+        jdbcTemplate.update("delete from " + joinTable.name + " where " + joinTable.ownerColumn + " = ? and "
+                + joinTable.valueColumn + " = ?", ownerId, valueId);
+    }
+
+    public void replace(JoinTable joinTable, Long ownerId, Set<Long> desiredIds) {
+        entityManager.flush();
+        Set<Long> currentIds = new HashSet<>(jdbcTemplate.queryForList(
+                "select " + joinTable.valueColumn + " from " + joinTable.name + " where " + joinTable.ownerColumn + " = ?",
+                Long.class, ownerId));
+
+        List<Object[]> removed = new ArrayList<>();
+        for (Long id : currentIds) {
+            if (!desiredIds.contains(id)) {
+                removed.add(new Object[]{ownerId, id});
+            }
+        }
+        List<Object[]> added = new ArrayList<>();
+        // 같은 행들을 동시에 넣는 요청끼리 서로의 잠금을 엇갈려 기다리지 않도록 항상 같은 순서로 넣는다.
+        for (Long id : new TreeSet<>(desiredIds)) {
+            if (!currentIds.contains(id)) {
+                added.add(new Object[]{ownerId, id});
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            jdbcTemplate.batchUpdate("delete from " + joinTable.name + " where " + joinTable.ownerColumn + " = ? and "
+                    + joinTable.valueColumn + " = ?", removed);
+        }
+        if (!added.isEmpty()) {
+            insertIfAbsent(joinTable, added);
+        }
+    }
+
+    private void insertIfAbsent(JoinTable joinTable, List<Object[]> rows) {
+        String insert = "insert into " + joinTable.name + " (" + joinTable.ownerColumn + ", " + joinTable.valueColumn + ") ";
+        if (upsertSupported) {
+            // PostgreSQL 은 실패한 문장이 트랜잭션 전체를 중단시키므로 중복 키를 잡아 다시 시도할 수 없다.
+            jdbcTemplate.batchUpdate(insert + "values (?, ?) on conflict do nothing", rows);
+            return;
+        }
+
+        String insertIfAbsent = insert + "select ?, ? where not exists (select 1 from " + joinTable.name + " where "
+                + joinTable.ownerColumn + " = ? and " + joinTable.valueColumn + " = ?)";
+        List<Object[]> parameters = new ArrayList<>();
+        for (Object[] row : rows) {
+            parameters.add(new Object[]{row[0], row[1], row[0], row[1]});
+        }
+        try {
+            jdbcTemplate.batchUpdate(insertIfAbsent, parameters);
+        } catch (DuplicateKeyException e) {
+            // 다른 요청이 아직 커밋하지 않은 같은 행이 있었다. 남은 행을 하나씩 넣는다.
+            for (Object[] row : parameters) {
+                try {
+                    jdbcTemplate.update(insertIfAbsent, row);
+                } catch (DuplicateKeyException alreadyInserted) {
+                    // 다른 요청이 먼저 넣었다.
+                }
+            }
+        }
+    }
+
+    public enum JoinTable {
+        ACCOUNT_TAGS("account_tags", "account_id", "tags_id"),
+        ACCOUNT_ZONES("account_zones", "account_id", "zones_id"),
+        STUDY_TAGS("study_tags", "study_id", "tags_id"),
+        STUDY_ZONES("study_zones", "study_id", "zones_id");
+
+        private final String name;
+        private final String ownerColumn;
+        private final String valueColumn;
+
+        JoinTable(String name, String ownerColumn, String valueColumn) {
+            this.name = name;
+            this.ownerColumn = ownerColumn;
+            this.valueColumn = valueColumn;
+        }
+    }
+}
@@ -1,19 +1,22 @@
 package com.studyolle.settings;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.studyolle.account.AccountService;
 import com.studyolle.account.CurrentUser;
+import com.studyolle.account.UserAccount;
 import com.studyolle.domain.Account;
 import com.studyolle.domain.Tag;
 import com.studyolle.domain.Zone;
+import com.studyolle.image.InvalidImageException;
 import com.studyolle.settings.form.*;
 import com.studyolle.settings.validator.NicknameFormValidator;
 import com.studyolle.settings.validator.PasswordFormValidator;
 import com.studyolle.tag.TagRepository;
-import com.studyolle.zone.ZoneRepository;
+import com.studyolle.tag.TagService;
+import com.studyolle.zone.ZoneCatalog;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -22,11 +25,10 @@ import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Controller
@@ -50,8 +52,8 @@ public class SettingsController {
     private final ModelMapper modelMapper;
     private final NicknameFormValidator nicknameFormValidator;
     private final TagRepository tagRepository;
-    private final ZoneRepository zoneRepository;
-    private final ObjectMapper objectMapper;
+    private final TagService tagService;
+    private final ZoneCatalog zoneCatalog;
 
     @InitBinder("passwordForm")
     public void passwordFormInitBinder(WebDataBinder webDataBinder) {
@@ -73,13 +75,20 @@ public class SettingsController {
 
     @PostMapping(SETTINGS_PROFILE_URL)
     public String updateProfile(@CurrentUser Account account, @Valid @ModelAttribute Profile profile
-            , Errors errors, Model model, RedirectAttributes attributes) {
+            , Errors errors, Model model, RedirectAttributes attributes, HttpServletResponse response) {
         if (errors.hasErrors()) {
             model.addAttribute(account);
             return SETTINGS_PROFILE_VIEW_NAME;
         }
 
-        accountService.updateProfile(account, profile);
+        try {
+            accountService.updateProfile(account, profile);
+        } catch (InvalidImageException e) {
+            errors.rejectValue("profileImage", "invalid.image", e.getMessage());
+            model.addAttribute(account);
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return SETTINGS_PROFILE_VIEW_NAME;
+        }
         attributes.addFlashAttribute("message", "프로필을 수정했습니다.");
         return "redirect:/profile/" + account.getNickname();
     }
@@ -141,90 +150,93 @@ public class SettingsController {
 
     @PostMapping(SETTINGS_ACCOUNT_URL)
     public String updateNickname(@CurrentUser Account account, @Valid NicknameForm nicknameForm
-            , Errors errors, Model model, RedirectAttributes attributes) {
+            , Errors errors, Model model, RedirectAttributes attributes, HttpServletResponse response) {
 
         if (errors.hasErrors()) {
             model.addAttribute(account);
             return SETTINGS_ACCOUNT_VIEW_NAME;
         }
 
-        accountService.updateNickname(account, nicknameForm);
+        try {
+            accountService.updateNickname(account, nicknameForm);
+        } catch (DataIntegrityViolationException e) {
+            errors.rejectValue("nickname", "wrong.value", "이미 존재하는 닉네임입니다.");
+            model.addAttribute(account);
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return SETTINGS_ACCOUNT_VIEW_NAME;
+        }
         attributes.addFlashAttribute("message", "닉네임 변경이 완료되었습니다.");
 
         return "redirect:" + SETTINGS_ACCOUNT_URL;
     }
 
     @GetMapping(SETTINGS_TAG_URL)
-    public String updateTags(@CurrentUser Account account, Model model) throws JsonProcessingException {
-        model.addAttribute(account);
-        Set<Tag> tags = accountService.getTags(account);
-        model.addAttribute("tags", tags.stream().map(Tag::getTitle).collect(Collectors.toList()));
-
-        List<String> allTags = tagRepository.findAll().stream().map(Tag::getTitle).collect(Collectors.toList());
-        model.addAttribute("whitelist", objectMapper.writeValueAsString(allTags));
+    public String updateTags(@CurrentUser UserAccount account, Model model) {
+        model.addAttribute("account", account);
+        model.addAttribute("tags", accountService.getTagTitles(account.getId()));
 
         return SETTINGS_TAG_VIEW_NAME;
     }
     
+    @PutMapping(SETTINGS_TAG_URL)
+    @ResponseBody
+    public ResponseEntity replaceTags(@CurrentUser UserAccount account, @RequestBody TagsForm tagsForm) {
+        accountService.updateTags(account.getId(), tagsForm.getTagTitles());
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("/settings/tags/add")
     @ResponseBody
-    public ResponseEntity addTag(@CurrentUser Account account, @RequestBody TagForm tagForm) {
-        String title = tagForm.getTagTitle();
-        Tag tag = tagRepository.findByTitle(title).orElseGet(() -> tagRepository.save(Tag.builder()
-                .title(tagForm.getTagTitle())
-                .build()));
+    public ResponseEntity addTag(@CurrentUser UserAccount account, @RequestBody TagForm tagForm) {
+        Tag tag = tagService.findOrCreateNew(tagForm.getTagTitle());
 
-        accountService.addTag(account, tag);
+        accountService.addTag(account.getId(), tag);
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/settings/tags/remove")
     @ResponseBody
-    public ResponseEntity removeTag(@CurrentUser Account account, @RequestBody TagForm tagForm) {
+    public ResponseEntity removeTag(@CurrentUser UserAccount account, @RequestBody TagForm tagForm) {
         Optional<Tag> byTitle = tagRepository.findByTitle(tagForm.getTagTitle());
         byTitle.ifPresent(tag -> {
-            accountService.removeTag(account, tag);
+            accountService.removeTag(account.getId(), tag);
         });
 
         return ResponseEntity.ok().build();
     }
 
     @GetMapping(SETTINGS_ZONES_URL)
-    public String updateZones(@CurrentUser Account account, Model model) throws JsonProcessingException {
-
-        List<String> accountZones = accountService.getZones(account)
-                .stream()
-                .map(m -> m.getCity() + "(" + m.getLocalNameOfCity() + ")/" + m.getProvince())
-                .collect(Collectors.toList());
-
-        List<String> zonesList = zoneRepository.findAll()
-                .stream()
-                .map(m -> m.getCity() + "(" + m.getLocalNameOfCity() + ")/" + m.getProvince())
-                .collect(Collectors.toList());
-
+    public String updateZones(@CurrentUser UserAccount account, Model model) {
         model.addAttribute("account", account);
-        model.addAttribute("whitelist", objectMapper.writeValueAsString(zonesList));
-        model.addAttribute("zones", accountZones);
+        model.addAttribute("whitelist", zoneCatalog.getWhitelistJson());
+        model.addAttribute("zones", accountService.getZoneNames(account.getId()));
         return SETTINGS_ZONES_VIEW_NAME;
     }
     
+    @PutMapping(SETTINGS_ZONES_URL)
+    @ResponseBody
+    public ResponseEntity replaceZones(@CurrentUser UserAccount account, @RequestBody ZonesForm zonesForm) {
+        accountService.updateZones(account.getId(), zonesForm.getZoneNames());
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping(SETTINGS_ZONES_URL + "/add")
     @ResponseBody
-    public ResponseEntity addZones(@CurrentUser Account account, @RequestBody ZoneForm zoneForm) {
-        Optional<Zone> zone = zoneRepository.findByCityAndLocalNameOfCity(
+    public ResponseEntity addZones(@CurrentUser UserAccount account, @RequestBody ZoneForm zoneForm) {
+        Optional<Zone> zone = zoneCatalog.findByCityAndLocalNameOfCity(
                 zoneForm.getCity()
                 , zoneForm.getLocalNameOfCity());
-        zone.ifPresent(z -> accountService.addZones(account, z));
+        zone.ifPresent(z -> accountService.addZone(account.getId(), z));
         return ResponseEntity.ok().build();
     }
 
     @PostMapping(SETTINGS_ZONES_URL + "/remove")
     @ResponseBody
-    public ResponseEntity removeZones(@CurrentUser Account account, @RequestBody ZoneForm zoneForm) {
-        Optional<Zone> zone = zoneRepository.findByCityAndLocalNameOfCity(
+    public ResponseEntity removeZones(@CurrentUser UserAccount account, @RequestBody ZoneForm zoneForm) {
+        Optional<Zone> zone = zoneCatalog.findByCityAndLocalNameOfCity(
                 zoneForm.getCity()
                 , zoneForm.getLocalNameOfCity());
-        zone.ifPresent(z -> accountService.removeZones(account, z));
+        zone.ifPresent(z -> accountService.removeZone(account.getId(), z));
         return ResponseEntity.ok().build();
     }
 }
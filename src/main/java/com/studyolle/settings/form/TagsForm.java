@@ -0,0 +1,12 @@
+package com.studyolle.settings.form;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TagsForm {
+
+    private List<String> tagTitles = new ArrayList<>();
+}
@@ -1,7 +1,7 @@
 package com.studyolle.settings.validator;
 
-import com.studyolle.account.AccountRepository;
 import com.studyolle.settings.form.NicknameForm;
+import com.studyolle.unique.UniqueNames;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
@@ -11,7 +11,7 @@ import org.springframework.validation.Validator;
 @RequiredArgsConstructor
 public class NicknameFormValidator implements Validator {
 
-    private final AccountRepository accountRepository;
+    private final UniqueNames uniqueNames;
 
     @Override
     public boolean supports(Class<?> clazz) {
@@ -22,7 +22,7 @@ public class NicknameFormValidator implements Validator {
     public void validate(Object target, Errors errors) {
         NicknameForm nicknameForm = (NicknameForm) target;
 
-        if (accountRepository.existsByNickname(nicknameForm.getNickname())) {
+        if (uniqueNames.isNicknameTaken(nicknameForm.getNickname())) {
             errors.rejectValue("nickname", "wrong.value", "이미 존재하는 닉네임입니다.");
         }
     }
@@ -1,12 +1,16 @@
 package com.studyolle.study;
 
 import com.studyolle.account.CurrentUser;
+import com.studyolle.account.UserAccount;
 import com.studyolle.domain.Account;
 import com.studyolle.domain.Study;
 import com.studyolle.study.form.StudyForm;
 import com.studyolle.study.validator.StudyFormValidator;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.Errors;
@@ -15,7 +19,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -24,6 +31,8 @@ import java.nio.charset.StandardCharsets;
 @RequiredArgsConstructor
 public class StudyController {
 
+    static final int MAX_PAGE_SIZE = 100;
+
     private final StudyService studyService;
     private final ModelMapper modelMapper;
     private final StudyFormValidator studyFormValidator;
@@ -34,35 +43,74 @@ public class StudyController {
     }
 
     @GetMapping("/new-study")
-    public String newStudyForm(@CurrentUser Account account, Model model) {
-        model.addAttribute(account);
+    public String newStudyForm(@CurrentUser UserAccount account, Model model) {
+        model.addAttribute("account", account);
         model.addAttribute(new StudyForm());
         return "study/form";
     }
 
     @PostMapping("/new-study")
-    public String newStudySubmit(@CurrentUser Account account, @Valid StudyForm studyForm, Errors errors) {
+    public String newStudySubmit(@CurrentUser Account account, @Valid StudyForm studyForm, Errors errors,
+                                 HttpServletResponse response) {
         if (errors.hasErrors()) {
             return "study/form";
         }
 
-        Study newStudy = studyService.createNewStudy(modelMapper.map(studyForm, Study.class), account);
+        Study newStudy;
+        try {
+            newStudy = studyService.createNewStudy(modelMapper.map(studyForm, Study.class), account);
+        } catch (DataIntegrityViolationException e) {
+            // 다른 노드에서 먼저 만든 경로는 이 노드의 필터가 모르므로 유니크 제약에서 걸린다.
+            errors.rejectValue("path", "wrong.path", "해당 스터디 경로를 사용할 수 없습니다.");
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return "study/form";
+        }
         return "redirect:/study/" + URLEncoder.encode(newStudy.getPath(), StandardCharsets.UTF_8);
     }
 
+    @GetMapping("/studies")
+    @ResponseBody
+    public ResponseEntity<StudyListPage> studies(@RequestParam(required = false) String tag,
+                                                 @RequestParam(required = false) Long zone,
+                                                 @RequestParam(required = false) Boolean recruiting,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "20") int size) {
+        StudyCursor after;
+        try {
+            after = cursor != null ? StudyCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(studyService.getStudyList(tag, zone, recruiting, after, pageSize));
+    }
+
     @GetMapping("/study/{path}")
-    public String viewStudy(@CurrentUser Account account, @PathVariable String path, Model model) {
+    public String viewStudy(@CurrentUser UserAccount account, @PathVariable String path, Model model) {
         Study study = studyService.getStudy(path);
 
-        model.addAttribute(account);
+        model.addAttribute("account", account);
         model.addAttribute(study);
         return "study/view";
     }
 
     @GetMapping("/study/{path}/members")
-    public String viewStudyMembers(@CurrentUser Account account, @PathVariable String path, Model model) {
-        model.addAttribute(account);
-        model.addAttribute(studyService.getStudy(path));
+    public String viewStudyMembers(@CurrentUser UserAccount account, @PathVariable String path, Model model) {
+        model.addAttribute("account", account);
+        model.addAttribute(studyService.getStudyWithMembers(path));
         return "study/members";
     }
+
+    @PostMapping("/study/{path}/join")
+    public String joinStudy(@CurrentUser UserAccount account, @PathVariable String path) {
+        studyService.joinStudy(path, account.getId());
+        return "redirect:/study/" + URLEncoder.encode(path, StandardCharsets.UTF_8) + "/members";
+    }
+
+    @PostMapping("/study/{path}/leave")
+    public String leaveStudy(@CurrentUser UserAccount account, @PathVariable String path) {
+        studyService.leaveStudy(path, account.getId());
+        return "redirect:/study/" + URLEncoder.encode(path, StandardCharsets.UTF_8) + "/members";
+    }
 }
@@ -0,0 +1,48 @@
+package com.studyolle.study;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 스터디 목록에서 마지막으로 본 스터디의 (공개 시각, id). 다음 페이지는 이 값보다 앞선 스터디부터 읽으므로
+ * 몇 번째 페이지든 인덱스에서 바로 찾아 들어간다. 클라이언트에는 뜻을 알 수 없는 문자열로만 내보낸다.
+ */
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class StudyCursor {
+
+    private static final char SEPARATOR = '_';
+
+    private final LocalDateTime publishedDateTime;
+
+    private final Long id;
+
+    public static StudyCursor of(StudySummary summary) {
+        return new StudyCursor(summary.getPublishedDateTime(), summary.getId());
+    }
+
+    public String encode() {
+        String value = publishedDateTime.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException 이 클래스가 만든 문자열이 아니면
+     */
+    public static StudyCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new StudyCursor(LocalDateTime.parse(value.substring(0, separator)), Long.valueOf(value.substring(separator + 1)));
+        } catch (DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.studyolle.study;
+
+import com.studyolle.account.AccountInterestsChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * 로그인한 계정의 홈 화면에 보일, 관심 태그와 지역에 맞는 모집 중인 스터디 목록. 가장 자주 열리는 화면이라
+ * {@link StudyFeedCache}에 있으면 트랜잭션도 열지 않고 돌려준다. 관심사가 바뀌면 커밋된 뒤에 그 계정 것만 지우고,
+ * 지우기 전에 읽기 시작한 피드는 캐시에 넣지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudyFeed {
+
+    static final int SIZE = 9;
+
+    private final StudyRepository studyRepository;
+    private final StudyFeedCache studyFeedCache;
+
+    public List<StudySummary> get(Long accountId) {
+        List<StudySummary> feed = studyFeedCache.get(accountId);
+        if (feed == null) {
+            long version = studyFeedCache.version();
+            feed = studyRepository.findFeedSummaries(accountId, SIZE);
+            studyFeedCache.put(accountId, feed, version);
+        }
+        return feed;
+    }
+
+    @TransactionalEventListener
+    public void evict(AccountInterestsChangedEvent event) {
+        studyFeedCache.evict(event.getAccountId());
+    }
+}
@@ -0,0 +1,104 @@
+package com.studyolle.study;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 계정별 홈 피드를 짧은 시간 동안 기억한다. 크기와 유효 시간이 제한되어 있고, 새로 공개된 스터디는
+ * 유효 시간이 지나야 보인다. 관심 태그나 지역이 바뀐 계정은 {@link #evict(Long)}로 바로 지운다.
+ * <p>
+ * 피드를 읽는 동안 지워진 계정의 피드는 넣지 않는다. 읽기 전에 {@link #version()}을 받아 두고
+ * {@link #put(Long, List, long)}에 넘기면, 그 뒤에 지워진 계정이면 버린다.
+ */
+@Component
+public class StudyFeedCache {
+
+    static final int MAX_SIZE = 10_000;
+    static final Duration TTL = Duration.ofSeconds(30);
+
+    private final Clock clock;
+
+    private long evictions;
+
+    /**
+     * 크기 제한으로 잊어버린 지우기 가운데 가장 나중 번호. 이보다 먼저 받은 버전으로는 어느 계정도 넣지 않는다.
+     */
+    private long forgottenEviction;
+
+    private final Map<Long, Long> evictedAt = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            if (size() > MAX_SIZE) {
+                forgottenEviction = Math.max(forgottenEviction, eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    public StudyFeedCache() {
+        this(Clock.systemUTC());
+    }
+
+    StudyFeedCache(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return 기억하고 있지 않거나 유효 시간이 지났으면 null
+     */
+    public synchronized List<StudySummary> get(Long accountId) {
+        Entry entry = entries.get(accountId);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiresAt <= clock.millis()) {
+            entries.remove(accountId);
+            return null;
+        }
+        return entry.feed;
+    }
+
+    public synchronized long version() {
+        return evictions;
+    }
+
+    /**
+     * @param version 피드를 읽기 전에 받은 {@link #version()}. 그 뒤에 이 계정이 지워졌으면 넣지 않는다.
+     */
+    public synchronized void put(Long accountId, List<StudySummary> feed, long version) {
+        if (version < forgottenEviction || evictedAt.getOrDefault(accountId, 0L) > version) {
+            return;
+        }
+        entries.put(accountId, new Entry(List.copyOf(feed), clock.millis() + TTL.toMillis()));
+    }
+
+    public synchronized void evict(Long accountId) {
+        entries.remove(accountId);
+        evictedAt.put(accountId, ++evictions);
+    }
+
+    private static class Entry {
+
+        private final List<StudySummary> feed;
+        private final long expiresAt;
+
+        private Entry(List<StudySummary> feed, long expiresAt) {
+            this.feed = feed;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.studyolle.study;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 스터디 목록 한 페이지. next 는 다음 페이지를 읽을 커서이고 마지막 페이지면 null 이다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class StudyListPage {
+
+    private final List<StudySummary> studies;
+
+    private final String next;
+}
@@ -0,0 +1,40 @@
+package com.studyolle.study;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 스터디 관리자 여부를 study_managers 조인 테이블에 대한 exists 쿼리 한 번으로 확인한다.
+ * 같은 요청 안에서는 결과를 요청 속성에 보관해 다시 조회하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudyManagerChecker {
+
+    private static final String CACHE_KEY_PREFIX = StudyManagerChecker.class.getName() + ".";
+
+    private final StudyRepository studyRepository;
+
+    public boolean isManager(Long accountId, String path) {
+        if (accountId == null) {
+            return false;
+        }
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        String key = CACHE_KEY_PREFIX + accountId + "." + path;
+        if (requestAttributes != null) {
+            Boolean cached = (Boolean) requestAttributes.getAttribute(key, RequestAttributes.SCOPE_REQUEST);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        boolean manager = studyRepository.existsByPathAndManagersId(path, accountId);
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(key, manager, RequestAttributes.SCOPE_REQUEST);
+        }
+        return manager;
+    }
+}
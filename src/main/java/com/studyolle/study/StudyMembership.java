@@ -0,0 +1,55 @@
+package com.studyolle.study;
+
+import com.studyolle.account.UserAccount;
+import com.studyolle.domain.Study;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 화면에서 쓰는 스터디 멤버, 관리자 여부. 컬렉션이 이미 로딩되어 있으면 그대로 쓰고, 아니면 컬렉션을 로딩하지 않고
+ * 조인 테이블에 exists 쿼리를 보낸다. 멤버 여부는 같은 요청 안에서 요청 속성에 보관해 다시 조회하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudyMembership {
+
+    private static final String CACHE_KEY_PREFIX = StudyMembership.class.getName() + ".";
+
+    private final StudyRepository studyRepository;
+    private final StudyManagerChecker studyManagerChecker;
+
+    public boolean isJoinable(Study study, UserAccount account) {
+        return study.isPublished() && study.isRecruiting() && !isMember(study, account) && !isManager(study, account);
+    }
+
+    public boolean isManager(Study study, UserAccount account) {
+        if (Hibernate.isInitialized(study.getManagers())) {
+            return study.isManager(account);
+        }
+        return studyManagerChecker.isManager(account.getId(), study.getPath());
+    }
+
+    public boolean isMember(Study study, UserAccount account) {
+        if (Hibernate.isInitialized(study.getMembers())) {
+            return study.isMember(account);
+        }
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        String key = CACHE_KEY_PREFIX + account.getId() + "." + study.getId();
+        if (requestAttributes != null) {
+            Boolean cached = (Boolean) requestAttributes.getAttribute(key, RequestAttributes.SCOPE_REQUEST);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        boolean member = studyRepository.existsByIdAndMembersId(study.getId(), account.getId());
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(key, member, RequestAttributes.SCOPE_REQUEST);
+        }
+        return member;
+    }
+}
@@ -1,14 +1,91 @@
 package com.studyolle.study;
 
 import com.studyolle.domain.Study;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Transactional(readOnly = true)
-public interface StudyRepository extends JpaRepository<Study, Long> {
+public interface StudyRepository extends JpaRepository<Study, Long>, StudyRepositoryExtension {
     boolean existsByPath(String path);
 
-    @EntityGraph(value = "Study.withAll", type = EntityGraph.EntityGraphType.LOAD)
+    boolean existsByPathAndManagersId(String path, Long accountId);
+
+    boolean existsByIdAndMembersId(Long id, Long accountId);
+
     Study findByPath(String path);
+
+    @Query("select s.id from Study s where s.path = :path")
+    Long findIdByPath(String path);
+
+    @EntityGraph(value = "Study.withTagsAndManagers", type = EntityGraph.EntityGraphType.LOAD)
+    Study findStudyWithTagsByPath(String path);
+
+    @EntityGraph(value = "Study.withZonesAndManagers", type = EntityGraph.EntityGraphType.LOAD)
+    Study findStudyWithZonesByPath(String path);
+
+    @EntityGraph(value = "Study.withManagers", type = EntityGraph.EntityGraphType.LOAD)
+    Study findStudyWithManagersByPath(String path);
+
+    @EntityGraph(value = "Study.withMembers", type = EntityGraph.EntityGraphType.LOAD)
+    Study findStudyWithMembersByPath(String path);
+
+    @Query("select s.id from Study s where s.published = true and s.id > :afterId order by s.id")
+    List<Long> findPublishedIdsAfter(Long afterId, Pageable pageable);
+
+    /**
+     * 가입할 자리를 하나 잡는다. 공개, 모집 중이고 정원이 남은 스터디의 memberCount 만 한 문장으로 올리므로
+     * 동시에 가입해도 정원을 넘지 않는다.
+     *
+     * @return 자리를 잡았으면 1
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update study set member_count = member_count + 1"
+            + " where id = :studyId and published = true and recruiting = true and closed = false"
+            + " and (member_limit is null or member_count < member_limit)", nativeQuery = true)
+    int reserveMemberSlot(Long studyId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "update study set member_count = member_count - 1 where id = :studyId", nativeQuery = true)
+    int releaseMemberSlot(Long studyId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update study set manager_count = manager_count + 1 where id = :studyId", nativeQuery = true)
+    int incrementManagerCount(Long studyId);
+
+    /**
+     * @return 멤버도 관리자도 아니어서 멤버 행을 넣었으면 1
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into study_members (study_id, members_id) select :studyId, :accountId"
+            + " where not exists (select 1 from study_members where study_id = :studyId and members_id = :accountId)"
+            + " and not exists (select 1 from study_managers where study_id = :studyId and managers_id = :accountId)",
+            nativeQuery = true)
+    int insertMember(Long studyId, Long accountId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from study_members where study_id = :studyId and members_id = :accountId", nativeQuery = true)
+    int deleteMember(Long studyId, Long accountId);
+
+    /**
+     * 조인 테이블을 세어 memberCount, managerCount 가 어긋난 스터디만 고친다.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update study s set"
+            + " member_count = (select count(*) from study_members m where m.study_id = s.id),"
+            + " manager_count = (select count(*) from study_managers m where m.study_id = s.id)"
+            + " where member_count <> (select count(*) from study_members m where m.study_id = s.id)"
+            + " or manager_count <> (select count(*) from study_managers m where m.study_id = s.id)", nativeQuery = true)
+    int recountMembers();
 }
@@ -0,0 +1,26 @@
+package com.studyolle.study;
+
+import com.studyolle.domain.Study;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface StudyRepositoryExtension {
+
+    /**
+     * 공개된 스터디를 최근 공개 순으로 limit 개 읽는다. 조건이 null 이면 따지지 않는다.
+     *
+     * @param after 이 커서 다음부터, null 이면 처음부터
+     */
+    List<StudySummary> findPublishedSummaries(String tag, Long zoneId, Boolean recruiting, StudyCursor after, int limit);
+
+    /**
+     * 모집 중인 공개 스터디 가운데 계정의 관심 태그와 관심 지역에 하나 이상씩 걸치는 스터디를 최근 공개 순으로 limit 개 읽는다.
+     */
+    List<StudySummary> findFeedSummaries(Long accountId, int limit);
+
+    /**
+     * 색인에 필요한 상세 소개, 태그, 지역을 채워서 읽는다.
+     */
+    List<Study> findForSearchByIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,104 @@
+package com.studyolle.study;
+
+import com.studyolle.domain.Study;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 목록 조건에 따라 JPQL 을 조립한다. 조건이 없는 자리에 "(:p is null or ...)"를 쓰면 DB 가 인덱스를 고르지 못하므로
+ * 쓰는 조건만 넣는다. 정렬은 (publishedDateTime, id) 내림차순 하나뿐이고 idx_study_published 의 앞 컬럼과 같아서
+ * 인덱스 순서대로 읽다가 limit 에서 멈춘다. 커서 조건의 OR 는 인덱스 범위로 쓰이지 않으므로
+ * "publishedDateTime <= 커서"를 따로 붙여 그 위치부터 읽기 시작하게 한다.
+ */
+public class StudyRepositoryExtensionImpl implements StudyRepositoryExtension {
+
+    private static final String SUMMARY = "new com.studyolle.study.StudySummary("
+            + "s.id, s.path, s.title, s.shortDescription, s.imageHash, s.publishedDateTime, s.memberCount)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<StudySummary> findPublishedSummaries(String tag, Long zoneId, Boolean recruiting, StudyCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("select ").append(SUMMARY).append(" from Study s");
+        if (tag != null) {
+            jpql.append(" join s.tags t");
+        }
+        if (zoneId != null) {
+            jpql.append(" join s.zones z");
+        }
+        jpql.append(" where s.published = true and s.publishedDateTime is not null");
+        if (tag != null) {
+            jpql.append(" and t.title = :tag");
+        }
+        if (zoneId != null) {
+            jpql.append(" and z.id = :zoneId");
+        }
+        if (recruiting != null) {
+            jpql.append(" and s.recruiting = :recruiting");
+        }
+        if (after != null) {
+            jpql.append(" and s.publishedDateTime <= :afterPublished")
+                    .append(" and (s.publishedDateTime < :afterPublished")
+                    .append(" or (s.publishedDateTime = :afterPublished and s.id < :afterId))");
+        }
+        jpql.append(" order by s.publishedDateTime desc, s.id desc");
+
+        TypedQuery<StudySummary> query = entityManager.createQuery(jpql.toString(), StudySummary.class)
+                .setMaxResults(limit);
+        if (tag != null) {
+            query.setParameter("tag", tag);
+        }
+        if (zoneId != null) {
+            query.setParameter("zoneId", zoneId);
+        }
+        if (recruiting != null) {
+            query.setParameter("recruiting", recruiting);
+        }
+        if (after != null) {
+            query.setParameter("afterPublished", after.getPublishedDateTime());
+            query.setParameter("afterId", after.getId());
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * 계정의 관심 태그와 지역 id 를 서브쿼리로 넘겨 study_tags, study_zones 의 (tags_id, study_id) 인덱스로 찾아 들어간다.
+     * 태그나 지역이 여러 개 겹치면 같은 스터디가 여러 줄 나오므로 distinct 로 합친다.
+     */
+    @Override
+    public List<StudySummary> findFeedSummaries(Long accountId, int limit) {
+        return entityManager.createQuery("select distinct " + SUMMARY
+                        + " from Study s join s.tags t join s.zones z"
+                        + " where s.published = true and s.recruiting = true and s.closed = false"
+                        + " and s.publishedDateTime is not null"
+                        + " and t.id in (select at.id from Account a join a.tags at where a.id = :accountId)"
+                        + " and z.id in (select az.id from Account a join a.zones az where a.id = :accountId)"
+                        + " order by s.publishedDateTime desc, s.id desc", StudySummary.class)
+                .setParameter("accountId", accountId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * 태그와 지역을 한 쿼리에서 함께 fetch join 하면 스터디마다 태그 수 곱하기 지역 수만큼 행이 나오므로 컬렉션마다
+     * 쿼리를 나눈다. 두 번째 쿼리는 같은 영속성 컨텍스트에 있는 스터디의 지역만 채운다.
+     */
+    @Override
+    public List<Study> findForSearchByIdIn(Collection<Long> ids) {
+        List<Study> studies = entityManager.createQuery("select distinct s from Study s"
+                        + " left join fetch s.detail left join fetch s.tags where s.id in :ids", Study.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        if (!studies.isEmpty()) {
+            entityManager.createQuery("select distinct s from Study s left join fetch s.zones where s.id in :ids", Study.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+        }
+        return studies;
+    }
+}
@@ -1,18 +1,34 @@
 package com.studyolle.study;
 
+import com.studyolle.account.UserAccount;
+import com.studyolle.config.ReadOnlyRoutingDataSource;
 import com.studyolle.domain.Account;
 import com.studyolle.domain.Study;
 import com.studyolle.domain.Tag;
 import com.studyolle.domain.Zone;
+import com.studyolle.image.ImageStore;
+import com.studyolle.settings.JoinTableUpdater;
+import com.studyolle.settings.JoinTableUpdater.JoinTable;
 import com.studyolle.settings.form.ZoneForm;
 import com.studyolle.study.form.StudyDescriptionForm;
+import com.studyolle.tag.TagService;
+import com.studyolle.unique.UniqueNames;
+import com.studyolle.zone.ZoneCatalog;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static com.studyolle.study.form.StudyForm.VALID_PATH_PATTERN;
 
@@ -23,33 +39,143 @@ public class StudyService {
 
     private final StudyRepository studyRepository;
     private final ModelMapper modelMapper;
+    private final ImageStore imageStore;
+    private final StudyManagerChecker studyManagerChecker;
+    private final TagService tagService;
+    private final ZoneCatalog zoneCatalog;
+    private final JoinTableUpdater joinTableUpdater;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UniqueNames uniqueNames;
 
     public Study createNewStudy(Study study, Account account) {
         Study newStudy = studyRepository.save(study);
         newStudy.addManager(account);
+        studyRepository.incrementManagerCount(newStudy.getId());
+        uniqueNames.addStudyPath(newStudy.getPath());
         return newStudy;
     }
 
-    public Study getStudyToUpdate(Account account, String path) {
-        Study study = this.getStudy(path);
+    /**
+     * memberCount, managerCount 컬럼이 생기기 전에 만든 스터디나 직접 고친 행의 카운터를 조인 테이블에 맞춘다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recountMembers() {
+        studyRepository.recountMembers();
+    }
 
-        if (!account.isManagerOf(study)) {
-            throw new AccessDeniedException("해당 기능을 사용할 수 없습니다.");
-        }
+    /**
+     * 관리자 여부를 exists 쿼리로 먼저 확인하고, 관리자일 때만 화면에 필요한 그래프를 읽는다.
+     */
+    public Study getStudyToUpdate(UserAccount account, String path) {
+        checkIfManager(account, path);
+        Study study = studyRepository.findStudyWithManagersByPath(path);
+        checkIfExistingStudy(path, study);
+        return study;
+    }
+
+    public Study getStudyToUpdateTag(UserAccount account, String path) {
+        checkIfManager(account, path);
+        Study study = studyRepository.findStudyWithTagsByPath(path);
+        checkIfExistingStudy(path, study);
+        return study;
+    }
 
+    public Study getStudyToUpdateZone(UserAccount account, String path) {
+        checkIfManager(account, path);
+        Study study = studyRepository.findStudyWithZonesByPath(path);
+        checkIfExistingStudy(path, study);
         return study;
     }
 
+    @Transactional(readOnly = true)
     public Study getStudy(String path) {
         Study study = studyRepository.findByPath(path);
+        checkIfExistingStudy(path, study);
+        return study;
+    }
+
+    @Transactional(readOnly = true)
+    public Study getStudyWithMembers(String path) {
+        Study study = studyRepository.findStudyWithMembersByPath(path);
+        checkIfExistingStudy(path, study);
+        return study;
+    }
+
+    /**
+     * 공개된 스터디 목록은 조금 늦게 보여도 되므로 replica 에서 읽는다.
+     *
+     * @return size 개의 스터디와, 더 있으면 그다음을 읽을 커서
+     */
+    @Transactional(readOnly = true)
+    public StudyListPage getStudyList(String tag, Long zoneId, Boolean recruiting, StudyCursor after, int size) {
+        List<StudySummary> studies = ReadOnlyRoutingDataSource.readFromReplica(() ->
+                studyRepository.findPublishedSummaries(tag, zoneId, recruiting, after, size + 1));
+        if (studies.size() <= size) {
+            return new StudyListPage(studies, null);
+        }
+
+        List<StudySummary> page = List.copyOf(studies.subList(0, size));
+        return new StudyListPage(page, StudyCursor.of(page.get(size - 1)).encode());
+    }
+
+    /**
+     * 스터디 행에서 자리를 먼저 잡고 멤버 행을 넣는다. 같은 스터디의 가입과 탈퇴는 스터디 행의 카운터 갱신에서
+     * 차례로 줄을 서므로 엔티티나 멤버 컬렉션을 읽지 않고도 카운터와 조인 테이블이 어긋나지 않는다.
+     * <p>
+     * 스터디 행 잠금은 커밋까지 이어지지만 일부러 그렇게 둔다. 앞선 가입이 커밋된 뒤에 멤버 행을 넣어야 같은 계정이
+     * 두 번 눌러도 not exists 가 앞선 행을 보고 0 을 돌려준다. 멤버 행을 먼저 넣으면 커밋되지 않은 행의 기본 키에서
+     * 기다리다 중복 키 오류가 난다. 이 트랜잭션은 두 문장뿐이라 잠금은 짧고, 스터디 설정 변경은 카운터 컬럼을 쓰지
+     * 않으므로 카운터를 덮어쓰지 않는다.
+     *
+     * @return 새로 가입했으면 true. 이미 멤버나 관리자이거나, 모집 중이 아니거나, 정원이 찼으면 false
+     */
+    public boolean joinStudy(String path, Long accountId) {
+        Long studyId = getStudyId(path);
+        if (studyRepository.reserveMemberSlot(studyId) == 0) {
+            return false;
+        }
+        if (studyRepository.insertMember(studyId, accountId) == 0) {
+            studyRepository.releaseMemberSlot(studyId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return 멤버였다가 빠졌으면 true
+     */
+    public boolean leaveStudy(String path, Long accountId) {
+        Long studyId = getStudyId(path);
+        if (studyRepository.deleteMember(studyId, accountId) == 0) {
+            return false;
+        }
+        studyRepository.releaseMemberSlot(studyId);
+        return true;
+    }
+
+    private Long getStudyId(String path) {
+        Long studyId = studyRepository.findIdByPath(path);
+        if (studyId == null) {
+            throw new IllegalArgumentException(path + "에 해당하는 스터디가 없습니다.");
+        }
+        return studyId;
+    }
+
+    private void checkIfExistingStudy(String path, Study study) {
         if (study == null) {
             throw new IllegalArgumentException(path + "에 해당하는 스터디가 없습니다.");
         }
-        return study;
+    }
+
+    private void checkIfManager(UserAccount account, String path) {
+        if (!studyManagerChecker.isManager(account.getId(), path)) {
+            throw new AccessDeniedException("해당 기능을 사용할 수 없습니다.");
+        }
     }
 
     public void updateStudyDescription(Study study, StudyDescriptionForm studyDescriptionForm) {
         modelMapper.map(studyDescriptionForm, study);
+        eventPublisher.publishEvent(new StudyUpdatedEvent(study.getId()));
     }
 
     public void updateBannerUse(Study study, String bannerUse) {
@@ -57,39 +183,74 @@ public class StudyService {
     }
 
     public void updateStudyImage(Study study, String image) {
-        study.setImage(image);
+        study.setImageHash(imageStore.storeStudyBanner(image));
+    }
+
+    public void updateStudyTags(UserAccount account, String path, List<String> tagTitles) {
+        Long studyId = getStudyIdToUpdate(account, path);
+        joinTableUpdater.replace(JoinTable.STUDY_TAGS, studyId, idsOf(tagService.findOrCreateNew(tagTitles).values()));
+        eventPublisher.publishEvent(new StudyUpdatedEvent(studyId));
+    }
+
+    public void updateStudyZones(UserAccount account, String path, List<String> zoneNames) {
+        Long studyId = getStudyIdToUpdate(account, path);
+        joinTableUpdater.replace(JoinTable.STUDY_ZONES, studyId, zoneNames.stream()
+                .map(zoneCatalog::findByDisplayName)
+                .flatMap(Optional::stream)
+                .map(Zone::getId)
+                .collect(Collectors.toSet()));
+        eventPublisher.publishEvent(new StudyUpdatedEvent(studyId));
+    }
+
+    private Long getStudyIdToUpdate(UserAccount account, String path) {
+        Long studyId = getStudyId(path);
+        checkIfManager(account, path);
+        return studyId;
+    }
+
+    private Set<Long> idsOf(Collection<Tag> tags) {
+        return tags.stream().map(Tag::getId).collect(Collectors.toSet());
     }
 
     public void addStudyTags(Study study, Tag tag) {
         study.getTags().add(tag);
+        eventPublisher.publishEvent(new StudyUpdatedEvent(study.getId()));
     }
 
     public void removeStudyTags(Study study, Tag tag) {
         study.getTags().remove(tag);
+        eventPublisher.publishEvent(new StudyUpdatedEvent(study.getId()));
     }
 
     public void addStudyZones(Study study, Zone zone) {
         study.getZones().add(zone);
+        eventPublisher.publishEvent(new StudyUpdatedEvent(study.getId()));
     }
 
     public void removeStudyZones(Study study, Zone zone) {
         study.getZones().remove(zone);
+        eventPublisher.publishEvent(new StudyUpdatedEvent(study.getId()));
     }
 
+    @Transactional(readOnly = true)
     public boolean isValidPath(String path) {
         if (!path.matches(VALID_PATH_PATTERN)) {
             return false;
         }
 
-        return !studyRepository.existsByPath(path);
+        return !uniqueNames.isStudyPathTaken(path);
     }
 
     public void updatePath(Study study, String path) {
         study.setPath(path);
+        uniqueNames.addStudyPath(path);
+        eventPublisher.publishEvent(new StudyUpdatedEvent(study.getId()));
     }
 
     public void publishStudy(Study study) {
         study.setPublished(true);
+        study.setPublishedDateTime(LocalDateTime.now());
+        eventPublisher.publishEvent(new StudyUpdatedEvent(study.getId()));
     }
 
     public boolean isValidTitle(String newTitle) {
@@ -98,5 +259,6 @@ public class StudyService {
 
     public void updateTitle(Study study, String newTitle) {
         study.setTitle(newTitle);
+        eventPublisher.publishEvent(new StudyUpdatedEvent(study.getId()));
     }
 }
@@ -1,20 +1,23 @@
 package com.studyolle.study;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.studyolle.account.CurrentUser;
-import com.studyolle.domain.Account;
+import com.studyolle.account.UserAccount;
 import com.studyolle.domain.Study;
 import com.studyolle.domain.Tag;
 import com.studyolle.domain.Zone;
+import com.studyolle.image.InvalidImageException;
 import com.studyolle.settings.form.TagForm;
+import com.studyolle.settings.form.TagsForm;
 import com.studyolle.settings.form.ZoneForm;
+import com.studyolle.settings.form.ZonesForm;
 import com.studyolle.study.form.StudyDescriptionForm;
 import com.studyolle.study.validator.StudyDescriptionFormValidator;
 import com.studyolle.tag.TagRepository;
-import com.studyolle.zone.ZoneRepository;
+import com.studyolle.tag.TagService;
+import com.studyolle.zone.ZoneCatalog;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -23,6 +26,7 @@ import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -39,8 +43,8 @@ public class StudySettingsController {
     private final ModelMapper modelMapper;
     private final StudyDescriptionFormValidator studyDescriptionFormValidator;
     private final TagRepository tagRepository;
-    private final ZoneRepository zoneRepository;
-    private final ObjectMapper objectMapper;
+    private final TagService tagService;
+    private final ZoneCatalog zoneCatalog;
 
     @InitBinder("studyDescriptionForm")
     public void studyDescriptionFormInitBinder(WebDataBinder webDataBinder) {
@@ -48,25 +52,25 @@ public class StudySettingsController {
     }
 
     @GetMapping("/description")
-    public String descriptionForm(@CurrentUser Account account, @PathVariable String path, Model model) {
+    public String descriptionForm(@CurrentUser UserAccount account, @PathVariable String path, Model model) {
         Study study = studyService.getStudyToUpdate(account, path);
 
         model.addAttribute(study);
-        model.addAttribute(account);
+        model.addAttribute("account", account);
         model.addAttribute(modelMapper.map(study, StudyDescriptionForm.class));
 
         return "study/settings/description";
     }
 
     @PostMapping("/description")
-    public String updateStudyInfo(@CurrentUser Account account, @PathVariable String path
+    public String updateStudyInfo(@CurrentUser UserAccount account, @PathVariable String path
             , @Valid StudyDescriptionForm studyDescriptionForm, Errors errors, Model model
             , RedirectAttributes attributes) {
 
         Study study = studyService.getStudyToUpdate(account, path);
 
         if (errors.hasErrors()) {
-            model.addAttribute(account);
+            model.addAttribute("account", account);
             model.addAttribute(study);
             return "study/settings/description";
         }
@@ -78,32 +82,40 @@ public class StudySettingsController {
     }
 
     @GetMapping("/banner")
-    public String bannerForm(@CurrentUser Account account, @PathVariable String path, Model model) {
+    public String bannerForm(@CurrentUser UserAccount account, @PathVariable String path, Model model) {
         Study study = studyService.getStudyToUpdate(account, path);
 
-        model.addAttribute(account);
+        model.addAttribute("account", account);
         model.addAttribute(study);
 
         return "study/settings/banner";
     }
 
     @PostMapping("/banner")
-    public String updateBannerImage(@CurrentUser Account account, @PathVariable String path, String image
-            , RedirectAttributes attributes) {
+    public String updateBannerImage(@CurrentUser UserAccount account, @PathVariable String path, String image
+            , Model model, RedirectAttributes attributes, HttpServletResponse response) {
         Study study = studyService.getStudyToUpdate(account, path);
-        studyService.updateStudyImage(study, image);
+        try {
+            studyService.updateStudyImage(study, image);
+        } catch (InvalidImageException e) {
+            model.addAttribute("account", account);
+            model.addAttribute(study);
+            model.addAttribute("imageError", e.getMessage());
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return "study/settings/banner";
+        }
         attributes.addFlashAttribute("message", "스터디 이미지를 수정했습니다.");
         return "redirect:/study/" + getPath(path) + "/settings/banner";
     }
 
     @PostMapping("/banner/{bannerUse}")
-    public String bannerUseSetting(@CurrentUser Account account
+    public String bannerUseSetting(@CurrentUser UserAccount account
             , @PathVariable String path, @PathVariable String bannerUse, Model model, RedirectAttributes attributes) {
 
         Study study = studyService.getStudyToUpdate(account, path);
         studyService.updateBannerUse(study, bannerUse);
 
-        model.addAttribute(account);
+        model.addAttribute("account", account);
         model.addAttribute(study);
 
         attributes.addFlashAttribute("message", "배너 사용상태가 변경되었습니다.");
@@ -112,27 +124,29 @@ public class StudySettingsController {
     }
 
     @GetMapping("/tags")
-    public String tagsForm(@CurrentUser Account account, @PathVariable String path, Model model)
-            throws JsonProcessingException {
-        Study study = studyService.getStudyToUpdate(account, path);
-
-        List<String> allTags = tagRepository.findAll().stream().map(Tag::getTitle).collect(Collectors.toList());
+    public String tagsForm(@CurrentUser UserAccount account, @PathVariable String path, Model model) {
+        Study study = studyService.getStudyToUpdateTag(account, path);
 
-        model.addAttribute(account);
+        model.addAttribute("account", account);
         model.addAttribute(study);
         model.addAttribute("tags", study.getTags().stream().map(Tag::getTitle).collect(Collectors.toList()));
-        model.addAttribute("whitelist", objectMapper.writeValueAsString(allTags));
 
         return "study/settings/tags";
     }
 
+    @PutMapping("/tags")
+    public ResponseEntity replaceStudyTags(@CurrentUser UserAccount account, @PathVariable String path
+            , @RequestBody TagsForm tagsForm) {
+        studyService.updateStudyTags(account, path, tagsForm.getTagTitles());
+
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("/tags/add")
-    public ResponseEntity addStudyTag(@CurrentUser Account account, @PathVariable String path
+    public ResponseEntity addStudyTag(@CurrentUser UserAccount account, @PathVariable String path
             , @RequestBody TagForm tagForm) {
-        Study study = studyService.getStudyToUpdate(account, path);
-        Tag tag = tagRepository.findByTitle(tagForm.getTagTitle()).orElseGet(() -> tagRepository.save(Tag.builder()
-                .title(tagForm.getTagTitle())
-                .build()));
+        Study study = studyService.getStudyToUpdateTag(account, path);
+        Tag tag = tagService.findOrCreateNew(tagForm.getTagTitle());
 
         studyService.addStudyTags(study, tag);
 
@@ -140,10 +154,10 @@ public class StudySettingsController {
     }
 
     @PostMapping("/tags/remove")
-    public ResponseEntity removeStudyTag(@CurrentUser Account account, @PathVariable String path
+    public ResponseEntity removeStudyTag(@CurrentUser UserAccount account, @PathVariable String path
             , @RequestBody TagForm tagForm) {
 
-        Study study = studyService.getStudyToUpdate(account, path);
+        Study study = studyService.getStudyToUpdateTag(account, path);
         Tag tag = tagRepository.findByTitle(tagForm.getTagTitle()).orElseThrow();
 
         studyService.removeStudyTags(study, tag);
@@ -152,30 +166,30 @@ public class StudySettingsController {
     }
 
     @GetMapping("/zones")
-    public String zonesForm(@CurrentUser Account account, @PathVariable String path, Model model) throws JsonProcessingException {
-        Study study = studyService.getStudyToUpdate(account, path);
-
-        List<String> allZones = zoneRepository.findAll()
-                .stream()
-                .map(m -> m.getCity() + "(" + m.getLocalNameOfCity() + ")/" + m.getProvince()).collect(Collectors.toList());
+    public String zonesForm(@CurrentUser UserAccount account, @PathVariable String path, Model model) {
+        Study study = studyService.getStudyToUpdateZone(account, path);
 
-        List<Object> studyZones = study.getZones()
-                .stream()
-                .map(m -> m.getCity() + "(" + m.getLocalNameOfCity() + ")/" + m.getProvince()).collect(Collectors.toList());
-
-        model.addAttribute(account);
+        model.addAttribute("account", account);
         model.addAttribute(study);
-        model.addAttribute("whitelist", objectMapper.writeValueAsString(allZones));
-        model.addAttribute("zones", studyZones);
+        model.addAttribute("whitelist", zoneCatalog.getWhitelistJson());
+        model.addAttribute("zones", zoneCatalog.getDisplayNames(study.getZones()));
 
         return "study/settings/zones";
     }
 
+    @PutMapping("/zones")
+    public ResponseEntity replaceStudyZones(@CurrentUser UserAccount account, @PathVariable String path
+            , @RequestBody ZonesForm zonesForm) {
+        studyService.updateStudyZones(account, path, zonesForm.getZoneNames());
+
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("/zones/add")
-    public ResponseEntity addStudyZones(@CurrentUser Account account, @PathVariable String path
+    public ResponseEntity addStudyZones(@CurrentUser UserAccount account, @PathVariable String path
             , @RequestBody ZoneForm zoneForm, Model model) {
-        Study study = studyService.getStudyToUpdate(account, path);
-        Zone zone = zoneRepository.findByCityAndLocalNameOfCity(zoneForm.getCity(), zoneForm.getLocalNameOfCity()).orElseThrow();
+        Study study = studyService.getStudyToUpdateZone(account, path);
+        Zone zone = zoneCatalog.findByCityAndLocalNameOfCity(zoneForm.getCity(), zoneForm.getLocalNameOfCity()).orElseThrow();
 
         studyService.addStudyZones(study, zone);
 
@@ -183,10 +197,10 @@ public class StudySettingsController {
     }
 
     @PostMapping("/zones/remove")
-    public ResponseEntity removeStudyZones(@CurrentUser Account account, @PathVariable String path
+    public ResponseEntity removeStudyZones(@CurrentUser UserAccount account, @PathVariable String path
             , @RequestBody ZoneForm zoneForm, Model model) {
-        Study study = studyService.getStudyToUpdate(account, path);
-        Zone zone = zoneRepository.findByCityAndLocalNameOfCity(zoneForm.getCity(), zoneForm.getLocalNameOfCity()).orElseThrow();
+        Study study = studyService.getStudyToUpdateZone(account, path);
+        Zone zone = zoneCatalog.findByCityAndLocalNameOfCity(zoneForm.getCity(), zoneForm.getLocalNameOfCity()).orElseThrow();
 
         studyService.removeStudyZones(study, zone);
 
@@ -194,22 +208,22 @@ public class StudySettingsController {
     }
 
     @GetMapping("/study")
-    public String studyForm(@CurrentUser Account account, @PathVariable String path, Model model) {
+    public String studyForm(@CurrentUser UserAccount account, @PathVariable String path, Model model) {
         Study study = studyService.getStudyToUpdate(account, path);
 
-        model.addAttribute(account);
+        model.addAttribute("account", account);
         model.addAttribute(study);
 
         return "study/settings/study";
     }
 
     @PostMapping("/study/publish")
-    public String studyPublish(@CurrentUser Account account, @PathVariable String path, Model model, RedirectAttributes attributes) {
+    public String studyPublish(@CurrentUser UserAccount account, @PathVariable String path, Model model, RedirectAttributes attributes) {
         Study study = studyService.getStudyToUpdate(account, path);
         studyService.publishStudy(study);
 
         model.addAttribute(study);
-        model.addAttribute(account);
+        model.addAttribute("account", account);
 
         attributes.addFlashAttribute("message", "스터디가 공개되었습니다.");
 
@@ -217,12 +231,12 @@ public class StudySettingsController {
     }
 
     @PostMapping("/study/path")
-    public String updateStudyPath(@CurrentUser Account account, @PathVariable String path, String newPath
+    public String updateStudyPath(@CurrentUser UserAccount account, @PathVariable String path, String newPath
             , Model model, RedirectAttributes attributes) {
         Study study = studyService.getStudyToUpdate(account, path);
 
         if (!studyService.isValidPath(newPath)) {
-            model.addAttribute(account);
+            model.addAttribute("account", account);
             model.addAttribute(study);
             model.addAttribute("studyPathError", "사용할 수 없는 스터디 경로입니다");
             return "study/settings/study";
@@ -234,12 +248,12 @@ public class StudySettingsController {
     }
 
     @PostMapping("/study/title")
-    public String updateStudyTitle(@CurrentUser Account account, @PathVariable String path, String newTitle
+    public String updateStudyTitle(@CurrentUser UserAccount account, @PathVariable String path, String newTitle
             , Model model, RedirectAttributes attributes) {
         Study study = studyService.getStudyToUpdate(account, path);
 
         if (!studyService.isValidTitle(newTitle)) {
-            model.addAttribute(account);
+            model.addAttribute("account", account);
             model.addAttribute(study);
             model.addAttribute("studyTitleError", "사용할 수 없는 스터디 이름입니다.");
             return "/study/settings/study";
@@ -0,0 +1,32 @@
+package com.studyolle.study;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 스터디 목록의 한 줄. 상세 소개와 연관 컬렉션 없이 목록에 보일 컬럼과 멤버 수만 읽는다.
+ */
+@Getter
+@AllArgsConstructor
+public class StudySummary {
+
+    private final Long id;
+
+    private final String path;
+
+    private final String title;
+
+    private final String shortDescription;
+
+    private final String imageHash;
+
+    private final LocalDateTime publishedDateTime;
+
+    private final int memberCount;
+
+    public String getThumbnailImage() {
+        return this.imageHash != null ? "/images/study/" + this.imageHash + "/thumbnail" : "/images/default_banner.png";
+    }
+}
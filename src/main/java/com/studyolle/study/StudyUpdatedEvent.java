@@ -0,0 +1,14 @@
+package com.studyolle.study;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 검색에 드러나는 스터디 정보(공개 여부, 경로, 제목, 소개, 태그, 지역)가 바뀌었음을 알린다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class StudyUpdatedEvent {
+
+    private final Long studyId;
+}
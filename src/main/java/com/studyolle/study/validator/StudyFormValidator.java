@@ -1,7 +1,7 @@
 package com.studyolle.study.validator;
 
-import com.studyolle.study.StudyRepository;
 import com.studyolle.study.form.StudyForm;
+import com.studyolle.unique.UniqueNames;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
@@ -11,7 +11,7 @@ import org.springframework.validation.Validator;
 @RequiredArgsConstructor
 public class StudyFormValidator implements Validator {
 
-    private final StudyRepository studyRepository;
+    private final UniqueNames uniqueNames;
 
     @Override
     public boolean supports(Class<?> clazz) {
@@ -21,7 +21,7 @@ public class StudyFormValidator implements Validator {
     @Override
     public void validate(Object target, Errors errors) {
         StudyForm studyForm = (StudyForm) target;
-        if (studyRepository.existsByPath(studyForm.getPath())) {
+        if (uniqueNames.isStudyPathTaken(studyForm.getPath())) {
             errors.rejectValue("path", "wrong.path" ,"해당 스터디 경로를 사용할 수 없습니다.");
         }
     }
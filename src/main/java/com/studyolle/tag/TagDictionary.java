@@ -0,0 +1,59 @@
+package com.studyolle.tag;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 태그 제목의 정렬된 인덱스. 키는 소문자로 바꾼 제목 뒤에 원래 제목을 붙인 것이라 대소문자를 가리지 않고
+ * 접두어로 찾을 수 있고, "Java" 와 "JAVA" 처럼 대소문자만 다른 태그도 모두 남는다.
+ * 시작할 때 한 번 읽어 들이고 이후에는 새로 만든 태그만 {@link #add(String)}로 더한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TagDictionary {
+
+    private final TagRepository tagRepository;
+
+    private static final char SEPARATOR = '\0';
+
+    private final ConcurrentNavigableMap<String, String> titles = new ConcurrentSkipListMap<>();
+
+    @PostConstruct
+    public void load() {
+        tagRepository.findAllTitles().forEach(this::add);
+    }
+
+    public void add(String title) {
+        titles.putIfAbsent(prefixOf(title) + SEPARATOR + title, title);
+    }
+
+    /**
+     * @return 접두어가 같은 태그 제목을 사전 순으로 최대 limit 개
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = prefixOf(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        List<String> suggestions = new ArrayList<>(limit);
+        for (String title : titles.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+            suggestions.add(title);
+            if (suggestions.size() == limit) {
+                break;
+            }
+        }
+        return suggestions;
+    }
+
+    private String prefixOf(String title) {
+        return title.strip().toLowerCase(Locale.ROOT);
+    }
+}
@@ -2,11 +2,16 @@ package com.studyolle.tag;
 
 import com.studyolle.domain.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Transactional(readOnly = true)
 public interface TagRepository extends JpaRepository<Tag, Long> {
     Optional<Tag> findByTitle(String title);
+
+    @Query("select t.title from Tag t")
+    List<String> findAllTitles();
 }
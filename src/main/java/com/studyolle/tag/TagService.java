@@ -0,0 +1,134 @@
+package com.studyolle.tag;
+
+import com.studyolle.domain.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 태그 제목을 태그로 바꾼다. 없는 태그는 만들고, 동시에 같은 제목을 만들어도 유니크 제약에 걸리지 않는다.
+ * 제목 목록은 한 번에 조회하고, 없는 제목만 모아서 넣는다.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class TagService {
+
+    private static final String UPSERT_RETURNING = "with input(title) as (values :rows), "
+            + "inserted as (insert into tag (id, title) select nextval('tag_seq'), title from input "
+            + "on conflict (title) do nothing returning id, title) "
+            + "select id, title from inserted "
+            + "union all select t.id, t.title from tag t join input i on t.title = i.title";
+
+    private static final String INSERT_IF_ABSENT = "insert into tag (id, title) "
+            + "select next value for tag_seq, :title "
+            + "where not exists (select 1 from tag where title = :title)";
+
+    private static final String SELECT_BY_TITLES = "select id, title from tag where title in (:titles)";
+
+    private final TagDictionary tagDictionary;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final EntityManager entityManager;
+
+    private boolean upsertSupported;
+
+    @PostConstruct
+    public void detectUpsertSupport() throws MetaDataAccessException {
+        String databaseName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        upsertSupported = "PostgreSQL".equalsIgnoreCase(databaseName);
+    }
+
+    public Tag findOrCreateNew(String title) {
+        return findOrCreateNew(List.of(title)).get(title);
+    }
+
+    /**
+     * @return 받은 제목 순서대로 제목과 태그를 담은 맵. 태그는 id 와 title 만 채운 준영속 엔티티다.
+     */
+    public Map<String, Tag> findOrCreateNew(Collection<String> titles) {
+        Set<String> distinct = new LinkedHashSet<>(titles);
+        if (distinct.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        entityManager.flush();
+        // 여러 요청이 같은 제목들을 넣을 때 서로의 행 잠금을 엇갈려 기다리지 않도록 항상 같은 순서로 넣는다.
+        List<String> sorted = distinct.stream().sorted().collect(Collectors.toList());
+        Map<String, Long> ids = upsertSupported ? upsert(sorted) : insertIfAbsent(sorted);
+        addToDictionaryAfterCommit(ids.keySet());
+
+        Map<String, Tag> tags = new LinkedHashMap<>();
+        distinct.forEach(title -> tags.put(title, Tag.builder().id(ids.get(title)).title(title).build()));
+        return tags;
+    }
+
+    private Map<String, Long> upsert(List<String> titles) {
+        List<Object[]> rows = titles.stream().map(title -> new Object[]{title}).collect(Collectors.toList());
+        Map<String, Long> ids = query(UPSERT_RETURNING, Map.of("rows", rows));
+        if (ids.size() < titles.size()) {
+            // 다른 트랜잭션이 먼저 만든 행은 이 문장의 스냅샷에 보이지 않을 수 있다.
+            ids.putAll(query(SELECT_BY_TITLES, Map.of("titles", titles)));
+        }
+        return ids;
+    }
+
+    private Map<String, Long> insertIfAbsent(List<String> titles) {
+        Map<String, Long> ids = query(SELECT_BY_TITLES, Map.of("titles", titles));
+        List<String> missing = titles.stream().filter(title -> !ids.containsKey(title)).collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return ids;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, SqlParameterSourceUtils.createBatch(
+                    missing.stream().map(title -> Map.of("title", title)).toArray(Map[]::new)));
+        } catch (DuplicateKeyException e) {
+            // 다른 요청이 먼저 만든 제목이 있다. 남은 제목을 하나씩 넣는다.
+            for (String title : missing) {
+                try {
+                    jdbcTemplate.update(INSERT_IF_ABSENT, Map.of("title", title));
+                } catch (DuplicateKeyException alreadyCreated) {
+                    // 다른 요청이 먼저 만들었다.
+                }
+            }
+        }
+        ids.putAll(query(SELECT_BY_TITLES, Map.of("titles", missing)));
+        return ids;
+    }
+
+    private Map<String, Long> query(String sql, Map<String, ?> parameters) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(sql, parameters, rs -> {
+            ids.put(rs.getString("title"), rs.getLong("id"));
+        });
+        return ids;
+    }
+
+    private void addToDictionaryAfterCommit(Set<String> titles) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            titles.forEach(tagDictionary::add);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                titles.forEach(tagDictionary::add);
+            }
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package com.studyolle.unique;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열 블룸 필터. 넣은 값은 언제나 있다고 답하고, 넣지 않은 값은 대략 falsePositiveRate 의 확률로만 있다고 답한다.
+ * 용량이 차면 두 배 크기에 오탐률을 절반으로 줄인 필터를 이어 붙이므로, 다시 읽어 들이지 않고 계속 더해도 전체 오탐률이
+ * falsePositiveRate 를 넘지 않는다. 여러 스레드가 함께 써도 된다.
+ */
+final class BloomFilter {
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        segments.add(new Segment(Math.max(expectedInsertions, 1), falsePositiveRate / 2));
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        if (mightContain(hash)) {
+            // 이미 있다고 답하는 값은 더해도 답이 바뀌지 않는다.
+            return;
+        }
+
+        Segment last = segments.get(segments.size() - 1);
+        if (last.isFull()) {
+            last = grow(last);
+        }
+        last.add(hash);
+    }
+
+    boolean mightContain(String value) {
+        return mightContain(hash(value));
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private boolean mightContain(long hash) {
+        for (Segment segment : segments) {
+            if (segment.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized Segment grow(Segment full) {
+        Segment last = segments.get(segments.size() - 1);
+        if (last != full) {
+            return last;
+        }
+        Segment next = new Segment(full.capacity * 2, full.falsePositiveRate / 2);
+        segments.add(next);
+        return next;
+    }
+
+    /**
+     * 64비트 FNV-1a 에 MurmurHash3 의 마무리 섞기를 더한 해시. 위아래 32비트를 두 해시 함수로 나눠 쓴다.
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Segment {
+
+        private final int capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+        private final AtomicInteger size = new AtomicInteger();
+
+        Segment(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            this.bitCount = Math.max(64, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        }
+
+        boolean isFull() {
+            return size.get() >= capacity;
+        }
+
+        void add(long hash) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = bitIndex(hash, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+            size.incrementAndGet();
+        }
+
+        boolean mightContain(long hash) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = bitIndex(hash, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long bitIndex(long hash, int i) {
+            long first = (int) hash;
+            long second = hash >>> 32;
+            return ((first + i * second) & Long.MAX_VALUE) % bitCount;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.studyolle.unique;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 로그인 없이 부르는 닉네임 확인을 클라이언트 주소마다 정해진 시간 동안 정해진 횟수로 제한해서, 가입한 닉네임을
+ * 하나씩 대 보며 알아내는 데 쓰이지 않게 한다. 기억하는 주소 수는 제한되어 있고 오래 안 쓴 주소부터 잊는다.
+ */
+@Component
+public class NicknameCheckLimiter {
+
+    static final int MAX_SIZE = 10_000;
+    static final int LIMIT = 30;
+    static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private final Clock clock;
+
+    private final Map<String, Window> windows = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    public NicknameCheckLimiter() {
+        this(Clock.systemUTC());
+    }
+
+    NicknameCheckLimiter(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return 이번 시간 동안 허용한 횟수를 넘지 않았으면 true
+     */
+    public synchronized boolean tryAcquire(String client) {
+        long now = clock.millis();
+        Window window = windows.get(client);
+        if (window == null || window.startedAt + WINDOW.toMillis() <= now) {
+            window = new Window(now);
+            windows.put(client, window);
+        }
+        return ++window.count <= LIMIT;
+    }
+
+    private static class Window {
+
+        private final long startedAt;
+        private int count;
+
+        private Window(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
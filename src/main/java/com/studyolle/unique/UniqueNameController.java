@@ -0,0 +1,29 @@
+package com.studyolle.unique;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+
+@Controller
+@RequiredArgsConstructor
+public class UniqueNameController {
+
+    private final UniqueNames uniqueNames;
+    private final NicknameCheckLimiter nicknameCheckLimiter;
+
+    @GetMapping("/check/nickname")
+    @ResponseBody
+    public ResponseEntity<Map<String, Boolean>> checkNickname(@RequestParam String nickname, HttpServletRequest request) {
+        if (!nicknameCheckLimiter.tryAcquire(request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return ResponseEntity.ok(Map.of("available", !uniqueNames.isNicknameRegistered(nickname)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.studyolle.unique;
+
+import com.studyolle.account.AccountRepository;
+import com.studyolle.study.StudyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 이미 쓰고 있는 이메일, 닉네임, 스터디 경로를 블룸 필터로 기억한다. 필터에 없는 값은 확실히 비어 있으므로 DB 를
+ * 조회하지 않고, 있을 수도 있는 값만 DB 로 확인한다. 시작할 때 한 번 읽어 들이고 이후에는 저장할 때 add 로 더한다.
+ * <p>
+ * 바꾸기 전 닉네임이나 지운 스터디의 경로는 필터에서 빠지지 않지만 DB 확인에서 걸러진다. 다른 노드에서 저장한 값은
+ * 모르므로 폼 검증의 마지막 보루는 각 컬럼의 유니크 제약이다. 답이 그대로 화면에 보이는 닉네임 확인은
+ * {@link #isNicknameRegistered(String)}로 항상 DB 에 묻는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UniqueNames {
+
+    static final int MIN_CAPACITY = 10_000;
+    static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountRepository accountRepository;
+    private final StudyRepository studyRepository;
+
+    private BloomFilter emails;
+    private BloomFilter nicknames;
+    private BloomFilter studyPaths;
+
+    @PostConstruct
+    public void load() {
+        int accounts = capacityFor(accountRepository.count());
+        emails = new BloomFilter(accounts, FALSE_POSITIVE_RATE);
+        nicknames = new BloomFilter(accounts, FALSE_POSITIVE_RATE);
+        studyPaths = new BloomFilter(capacityFor(studyRepository.count()), FALSE_POSITIVE_RATE);
+
+        jdbcTemplate.query("select email, nickname from account", rs -> {
+            addEmail(rs.getString("email"));
+            addNickname(rs.getString("nickname"));
+        });
+        jdbcTemplate.query("select path from study", rs -> {
+            addStudyPath(rs.getString("path"));
+        });
+    }
+
+    private int capacityFor(long rows) {
+        return (int) Math.min(Integer.MAX_VALUE / 2, Math.max(MIN_CAPACITY, rows * 2));
+    }
+
+    public boolean isEmailTaken(String email) {
+        return email != null && emails.mightContain(email) && accountRepository.existsByEmail(email);
+    }
+
+    public boolean isNicknameTaken(String nickname) {
+        return nickname != null && nicknames.mightContain(nickname) && accountRepository.existsByNickname(nickname);
+    }
+
+    /**
+     * 필터를 거치지 않고 DB 에 묻는다. 다른 노드에서 방금 가입한 닉네임도 쓰고 있다고 답한다.
+     */
+    public boolean isNicknameRegistered(String nickname) {
+        return nickname != null && accountRepository.existsByNickname(nickname);
+    }
+
+    public boolean isStudyPathTaken(String path) {
+        return path != null && studyPaths.mightContain(path) && studyRepository.existsByPath(path);
+    }
+
+    public void addEmail(String email) {
+        if (email != null) {
+            emails.add(email);
+        }
+    }
+
+    public void addNickname(String nickname) {
+        if (nickname != null) {
+            nicknames.add(nickname);
+        }
+    }
+
+    public void addStudyPath(String path) {
+        if (path != null) {
+            studyPaths.add(path);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.studyolle.zone;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyolle.domain.Zone;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 실행 중에는 거의 바뀌지 않는 지역 목록. 요청을 받기 전에 DB 에 있는 지역으로 만들고 {@link ZoneDataset}을
+ * 읽어 들인 뒤 다시 만든다. 표시 문자열과 화이트리스트 JSON, (city, localNameOfCity)와 id 로 찾는 맵을 모두 미리 계산해 둔다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ZoneCatalog {
+
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), "[]");
+
+    void load(List<Zone> zones) {
+        List<String> displayNames = zones.stream().map(ZoneCatalog::displayNameOf).collect(Collectors.toList());
+        try {
+            snapshot = new Snapshot(zones, objectMapper.writeValueAsString(displayNames));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String getWhitelistJson() {
+        return snapshot.whitelistJson;
+    }
+
+    public Optional<Zone> findById(Long id) {
+        return Optional.ofNullable(snapshot.byId.get(id));
+    }
+
+    public Optional<Zone> findByCityAndLocalNameOfCity(String city, String localNameOfCity) {
+        return Optional.ofNullable(snapshot.byCityAndLocalName.get(keyOf(city, localNameOfCity)));
+    }
+
+    public Optional<Zone> findByDisplayName(String displayName) {
+        return Optional.ofNullable(snapshot.byDisplayName.get(displayName));
+    }
+
+    public String getDisplayName(Zone zone) {
+        String displayName = snapshot.displayNames.get(zone.getId());
+        return displayName != null ? displayName : displayNameOf(zone);
+    }
+
+    public List<String> getDisplayNamesById(Collection<Long> ids) {
+        Map<Long, String> displayNames = snapshot.displayNames;
+        return ids.stream().map(displayNames::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    public List<String> getDisplayNames(Collection<Zone> zones) {
+        return zones.stream().map(this::getDisplayName).collect(Collectors.toList());
+    }
+
+    private static String displayNameOf(Zone zone) {
+        return zone.getCity() + "(" + zone.getLocalNameOfCity() + ")/" + zone.getProvince();
+    }
+
+    private static String keyOf(String city, String localNameOfCity) {
+        return city + "(" + localNameOfCity + ")";
+    }
+
+    private static class Snapshot {
+
+        private final Map<Long, Zone> byId;
+        private final Map<String, Zone> byCityAndLocalName;
+        private final Map<Long, String> displayNames;
+        private final Map<String, Zone> byDisplayName;
+        private final String whitelistJson;
+
+        private Snapshot(List<Zone> zones, String whitelistJson) {
+            Map<Long, Zone> byId = new HashMap<>();
+            Map<String, Zone> byCityAndLocalName = new HashMap<>();
+            Map<Long, String> displayNames = new HashMap<>();
+            Map<String, Zone> byDisplayName = new HashMap<>();
+            for (Zone zone : zones) {
+                byId.put(zone.getId(), zone);
+                byCityAndLocalName.put(keyOf(zone.getCity(), zone.getLocalNameOfCity()), zone);
+                displayNames.put(zone.getId(), displayNameOf(zone));
+                byDisplayName.put(displayNameOf(zone), zone);
+            }
+            this.byId = Map.copyOf(byId);
+            this.byCityAndLocalName = Map.copyOf(byCityAndLocalName);
+            this.displayNames = Map.copyOf(displayNames);
+            this.byDisplayName = Map.copyOf(byDisplayName);
+            this.whitelistJson = whitelistJson;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.studyolle.zone;
+
+import com.studyolle.domain.Zone;
+import com.studyolle.reference.ReferenceDataset;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * zones_kr.csv 의 (city, localNameOfCity, province) 행. (city, localNameOfCity)가 같은 지역은 province 만 고치고,
+ * 없는 지역은 새로 저장한다. 파일에서 빠진 지역은 계정과 스터디가 참조하고 있을 수 있어 지우지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ZoneDataset implements ReferenceDataset {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ZoneRepository zoneRepository;
+    private final ZoneCatalog zoneCatalog;
+
+    @Override
+    public String getName() {
+        return "zones";
+    }
+
+    @Override
+    public Resource getResource() {
+        return new ClassPathResource("zones_kr.csv");
+    }
+
+    @Override
+    public void upsert(List<String[]> rows) {
+        List<Object[]> updates = new ArrayList<>(rows.size());
+        for (String[] row : rows) {
+            updates.add(new Object[]{provinceOf(row), row[0], row[1]});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(
+                "update zone set province = ? where city = ? and local_name_of_city = ?", updates);
+
+        for (int i = 0; i < rows.size(); i++) {
+            if (updated[i] == 0) {
+                String[] row = rows.get(i);
+                entityManager.persist(Zone.builder()
+                        .city(row[0])
+                        .localNameOfCity(row[1])
+                        .province(provinceOf(row))
+                        .build());
+            }
+        }
+        // 다음 배치의 update 가 이번 배치에서 새로 만든 지역도 보도록 insert 를 배치로 보낸다.
+        entityManager.flush();
+    }
+
+    private String provinceOf(String[] row) {
+        return row.length > 2 ? row[2] : null;
+    }
+
+    @Override
+    public void loaded() {
+        zoneCatalog.load(zoneRepository.findAll());
+    }
+}
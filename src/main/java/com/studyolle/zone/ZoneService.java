@@ -1,41 +0,0 @@
-package com.studyolle.zone;
-
-import com.studyolle.domain.Zone;
-import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
-import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import javax.annotation.PostConstruct;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-@Service
-@Transactional
-@RequiredArgsConstructor
-public class ZoneService {
-
-    private final ZoneRepository zoneRepository;
-
-    @PostConstruct
-    public void initZoneData() throws IOException {
-        if (zoneRepository.count() == 0) {
-            Resource resource = new ClassPathResource("zones_kr.csv");
-            List<Zone> zoneList = Files.readAllLines(resource.getFile().toPath(), StandardCharsets.UTF_8).stream()
-                    .map(line -> {
-                        String[] strings = line.split(",");
-                        return Zone.builder()
-                                .city(strings[0])
-                                .localNameOfCity(strings[1])
-                                .province(strings[2])
-                                .build();
-                    }).collect(Collectors.toList());
-            zoneRepository.saveAll(zoneList);
-        }
-    }
-}
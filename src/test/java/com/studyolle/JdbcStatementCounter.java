@@ -0,0 +1,65 @@
+package com.studyolle;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataSource 를 감싸서 준비한 JDBC 문장 수를 센다. Hibernate {@code Statistics} 에 잡히지 않는 JdbcTemplate 문장도
+ * 포함한다. 배치는 문장 하나로 센다. 백그라운드 작업의 문장이 섞이지 않도록 {@link #clear()}를 부른 스레드의 문장만
+ * 센다. 테스트 클래스에 {@code @Import(JdbcStatementCounter.class)} 로 붙인다.
+ */
+public class JdbcStatementCounter implements BeanPostProcessor {
+
+    private static final AtomicLong statements = new AtomicLong();
+    private static volatile Thread countingThread;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource)) {
+            return bean;
+        }
+        return new DelegatingDataSource((DataSource) bean) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return counting(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return counting(super.getConnection(username, password));
+            }
+        };
+    }
+
+    private static Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (Thread.currentThread() == countingThread && (name.equals("prepareStatement")
+                            || name.equals("prepareCall") || name.equals("createStatement"))) {
+                        statements.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    public static long getCount() {
+        return statements.get();
+    }
+
+    public static void clear() {
+        countingThread = Thread.currentThread();
+        statements.set(0);
+    }
+}
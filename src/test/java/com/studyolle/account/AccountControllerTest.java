@@ -11,6 +11,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -75,6 +76,30 @@ class AccountControllerTest {
                 .andExpect(authenticated());
     }
 
+    @DisplayName("회원 가입 - 다른 노드가 먼저 가입한 닉네임")
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void signUpSubmit_nickname_taken_elsewhere() throws Exception {
+        // 필터를 거치지 않고 저장해서 다른 노드가 저장한 값처럼 만든다
+        accountRepository.save(Account.builder()
+                .email("elsewhere@email.com").password("12345678").nickname("elsewhere").build());
+        try {
+            mockMvc.perform(post("/sign-up")
+                            .param("nickname", "elsewhere")
+                            .param("email", "here@email.com")
+                            .param("password", "12345678")
+                            .with(csrf()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(view().name("account/sign-up"))
+                    .andExpect(model().attributeHasFieldErrors("signUpForm", "nickname"))
+                    .andExpect(unauthenticated());
+
+            assertNull(accountRepository.findByEmail("here@email.com"));
+        } finally {
+            accountRepository.deleteAll();
+        }
+    }
+
     @DisplayName("회원 가입 화면 보이는지 테스트")
     @Test
     void signUpForm() throws Exception {
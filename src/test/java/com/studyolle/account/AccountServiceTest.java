@@ -0,0 +1,101 @@
+package com.studyolle.account;
+
+import com.studyolle.domain.Account;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.studyolle.SqlStatementCollector",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.mail.poll-interval=1h"
+})
+class AccountServiceTest {
+
+    @Autowired
+    AccountService accountService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    UnknownLoginCache unknownLoginCache;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @DisplayName("로그인 - 엔티티를 읽지 않고 쿼리 한 번으로 자격 증명을 가져옴")
+    @Test
+    void loadUserByUsername_single_query() {
+        accountRepository.save(Account.builder()
+                .nickname("wook")
+                .email("wook@email.com")
+                .password("12345678")
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        for (String emailOrNickname : new String[]{"wook", "wook@email.com"}) {
+            statistics.clear();
+
+            UserDetails user = accountService.loadUserByUsername(emailOrNickname);
+
+            assertEquals("wook", user.getUsername());
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+        }
+    }
+
+    @DisplayName("로그인 - 없는 식별자는 유효 시간 동안 다시 조회하지 않음")
+    @Test
+    void loadUserByUsername_unknown() {
+        statistics.clear();
+
+        assertThrows(UsernameNotFoundException.class, () -> accountService.loadUserByUsername("nobody"));
+        assertThrows(UsernameNotFoundException.class, () -> accountService.loadUserByUsername("nobody"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(unknownLoginCache.isUnknown("nobody"));
+        unknownLoginCache.evict("nobody");
+    }
+
+    @DisplayName("회원 가입 - 가입 트랜잭션이 커밋되기 전에는 모르는 식별자 기록을 지우지 않음")
+    @Test
+    void processNewAccount_evicts_after_commit() {
+        unknownLoginCache.markUnknown("newbie");
+
+        SignUpForm signUpForm = new SignUpForm();
+        signUpForm.setNickname("newbie");
+        signUpForm.setEmail("newbie@email.com");
+        signUpForm.setPassword("12345678");
+        accountService.processNewAccount(signUpForm);
+
+        assertTrue(unknownLoginCache.isUnknown("newbie"));
+        unknownLoginCache.evict("newbie");
+    }
+}
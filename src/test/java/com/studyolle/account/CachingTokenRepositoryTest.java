@@ -0,0 +1,112 @@
+package com.studyolle.account;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.rememberme.CookieTheftException;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenBasedRememberMeServices;
+
+import javax.servlet.http.Cookie;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.mail.poll-interval=1h",
+        "app.remember-me.sweep-interval=1h"
+})
+class CachingTokenRepositoryTest {
+
+    @Autowired CachingTokenRepository tokenRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from persistent_logins");
+    }
+
+    @DisplayName("토큰 갱신은 바로 DB 에 반영되고 캐시에도 보임")
+    @Test
+    void updateToken_writeThrough() {
+        Date created = new Date(System.currentTimeMillis() - 60_000);
+        tokenRepository.createNewToken(new PersistentRememberMeToken("wook", "series", "token-1", created));
+
+        Date used = new Date();
+        tokenRepository.updateToken("series", "token-2", used);
+
+        assertEquals("token-2", tokenRepository.getTokenForSeries("series").getTokenValue());
+        assertEquals("token-2", storedToken("series"));
+        assertEquals(used.getTime(), jdbcTemplate.queryForObject(
+                "select last_used from persistent_logins where series = 'series'", Date.class).getTime());
+    }
+
+    @DisplayName("다른 노드가 바꾼 토큰은 캐시 유지 시간이 지나면 DB 에서 다시 읽음")
+    @Test
+    void tokenChangedOnAnotherNode() {
+        RememberMeProperties properties = new RememberMeProperties();
+        properties.setCacheTtl(Duration.ZERO);
+        CachingTokenRepository otherNode = new CachingTokenRepository(jdbcTemplate, properties);
+        tokenRepository.createNewToken(new PersistentRememberMeToken("wook", "series", "token-1", new Date()));
+        assertEquals("token-1", otherNode.getTokenForSeries("series").getTokenValue());
+
+        tokenRepository.updateToken("series", "token-2", new Date());
+
+        assertEquals("token-2", otherNode.getTokenForSeries("series").getTokenValue());
+    }
+
+    @DisplayName("예전 쿠키로 자동 로그인하면 탈취로 판정되고 그 사용자의 시리즈가 모두 지워짐")
+    @Test
+    void cookieTheft() {
+        tokenRepository.createNewToken(new PersistentRememberMeToken("wook", "series", "token-1", new Date()));
+        tokenRepository.createNewToken(new PersistentRememberMeToken("wook", "other-series", "token", new Date()));
+        PersistentTokenBasedRememberMeServices rememberMeServices = new PersistentTokenBasedRememberMeServices("key",
+                username -> User.withUsername(username).password("password").roles("USER").build(), tokenRepository);
+
+        assertNotNull(rememberMeServices.autoLogin(rememberMeRequest("series", "token-1"), new MockHttpServletResponse()));
+        assertNotEquals("token-1", tokenRepository.getTokenForSeries("series").getTokenValue());
+
+        assertThrows(CookieTheftException.class,
+                () -> rememberMeServices.autoLogin(rememberMeRequest("series", "token-1"), new MockHttpServletResponse()));
+        assertNull(tokenRepository.getTokenForSeries("series"));
+        assertNull(tokenRepository.getTokenForSeries("other-series"));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from persistent_logins", Integer.class));
+    }
+
+    @DisplayName("오래 쓰이지 않은 시리즈만 지워짐")
+    @Test
+    void sweep() {
+        long now = System.currentTimeMillis();
+        long validity = Duration.ofDays(14).toMillis();
+        tokenRepository.createNewToken(new PersistentRememberMeToken("wook", "stale", "token", new Date(now - validity - 60_000)));
+        tokenRepository.createNewToken(new PersistentRememberMeToken("wook", "used", "token", new Date(now - validity - 60_000)));
+        tokenRepository.updateToken("used", "token-2", new Date(now));
+
+        tokenRepository.sweep();
+
+        assertNull(tokenRepository.getTokenForSeries("stale"));
+        assertEquals("token-2", tokenRepository.getTokenForSeries("used").getTokenValue());
+        assertEquals("token-2", storedToken("used"));
+    }
+
+    private String storedToken(String series) {
+        return jdbcTemplate.queryForObject("select token from persistent_logins where series = ?", String.class, series);
+    }
+
+    private MockHttpServletRequest rememberMeRequest(String series, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        String value = Base64.getEncoder().withoutPadding()
+                .encodeToString((series + ":" + token).getBytes(StandardCharsets.UTF_8));
+        request.setCookies(new Cookie("remember-me", value));
+        return request;
+    }
+}
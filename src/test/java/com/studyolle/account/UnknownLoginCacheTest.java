@@ -0,0 +1,106 @@
+package com.studyolle.account;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnknownLoginCacheTest {
+
+    MutableClock clock = new MutableClock();
+
+    UnknownLoginCache cache = new UnknownLoginCache(clock);
+
+    @AfterEach
+    void afterEach() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @DisplayName("유효 시간이 지나면 다시 조회하도록 잊는다")
+    @Test
+    void expiresAfterTtl() {
+        cache.markUnknown("nobody");
+        assertTrue(cache.isUnknown("nobody"));
+
+        clock.advance(UnknownLoginCache.TTL.minusMillis(1));
+        assertTrue(cache.isUnknown("nobody"));
+
+        clock.advance(Duration.ofMillis(1));
+        assertFalse(cache.isUnknown("nobody"));
+    }
+
+    @DisplayName("최대 크기를 넘으면 가장 오래 쓰지 않은 항목부터 버린다")
+    @Test
+    void boundedByLeastRecentlyUsed() {
+        for (int i = 0; i < UnknownLoginCache.MAX_SIZE; i++) {
+            cache.markUnknown("user" + i);
+        }
+        assertTrue(cache.isUnknown("user0"));
+
+        cache.markUnknown("overflow");
+
+        assertTrue(cache.isUnknown("user0"));
+        assertFalse(cache.isUnknown("user1"));
+        assertTrue(cache.isUnknown("overflow"));
+    }
+
+    @DisplayName("트랜잭션 안에서는 커밋된 뒤에 지운다")
+    @Test
+    void evictAfterCommit() {
+        cache.markUnknown("newbie");
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictAfterCommit("newbie");
+        cache.markUnknown("newbie");
+        assertTrue(cache.isUnknown("newbie"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertFalse(cache.isUnknown("newbie"));
+    }
+
+    @DisplayName("트랜잭션 밖에서는 바로 지운다")
+    @Test
+    void evictWithoutTransaction() {
+        cache.markUnknown("newbie");
+
+        cache.evictAfterCommit("newbie");
+
+        assertFalse(cache.isUnknown("newbie"));
+    }
+
+    static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.studyolle.account;
+
+import com.studyolle.domain.Account;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserAccountTest {
+
+    @DisplayName("세션에 저장되는 SecurityContext 직렬화 크기")
+    @Test
+    void serializedSecurityContextSize() throws IOException {
+        Account account = Account.builder()
+                .id(1L)
+                .nickname("wook")
+                .email("today8934@gmail.com")
+                .password("{bcrypt}$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ012")
+                .emailVerified(true)
+                .profileImageHash("0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef")
+                .bio("짧은 소개")
+                .build();
+
+        UserAccount userAccount = new UserAccount(account);
+        SecurityContextImpl securityContext = new SecurityContextImpl(new UsernamePasswordAuthenticationToken(
+                userAccount, userAccount.getPassword(), userAccount.getAuthorities()));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+            outputStream.writeObject(securityContext);
+        }
+
+        assertTrue(bytes.size() < 2048, "직렬화된 SecurityContext 가 " + bytes.size() + " 바이트입니다.");
+    }
+}
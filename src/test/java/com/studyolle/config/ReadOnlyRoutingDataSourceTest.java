@@ -0,0 +1,55 @@
+package com.studyolle.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadOnlyRoutingDataSourceTest {
+
+    DataSource dataSource = ReadOnlyRoutingDataSource.of(h2("routing_primary"), h2("routing_replica"));
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+    @DisplayName("replica 에서 읽겠다고 한 읽기 전용 트랜잭션만 replica 로 가고, 나머지는 primary 로 감")
+    @Test
+    void routesReplicaReadsToReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertEquals("ROUTING_REPLICA", readOnly.execute(status -> ReadOnlyRoutingDataSource.readFromReplica(this::currentDatabase)));
+        assertEquals("ROUTING_PRIMARY", readOnly.execute(status -> currentDatabase()));
+        assertEquals("ROUTING_PRIMARY", readWrite.execute(status -> ReadOnlyRoutingDataSource.readFromReplica(this::currentDatabase)));
+        assertEquals("ROUTING_PRIMARY", ReadOnlyRoutingDataSource.readFromReplica(this::currentDatabase));
+        assertEquals("ROUTING_PRIMARY", currentDatabase());
+    }
+
+    @DisplayName("쓰기 트랜잭션 안에서 부른 읽기 전용 작업은 바깥 트랜잭션의 primary 연결을 그대로 씀")
+    @Test
+    void nestedReadOnlyJoinsPrimary() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertEquals("ROUTING_PRIMARY", readWrite.execute(status -> readOnly.execute(inner ->
+                ReadOnlyRoutingDataSource.readFromReplica(this::currentDatabase))));
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select database()", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,78 @@
+package com.studyolle.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * primary 와 replica 가 같은 H2 DB 를 다른 사용자로 연다. 어느 쪽 연결인지는 select user() 로 구분한다.
+ */
+@SpringBootTest(properties = {
+        "app.mail.poll-interval=1h",
+        "spring.datasource.url=jdbc:h2:mem:replica_routing;DB_CLOSE_DELAY=-1"
+                + ";INIT=CREATE USER IF NOT EXISTS REPLICA PASSWORD 'replica' ADMIN",
+        "spring.datasource.username=sa",
+        "app.datasource.replica.url=jdbc:h2:mem:replica_routing;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=replica",
+        "app.datasource.replica.password=replica"
+})
+class ReplicaDataSourceConfigTest {
+
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @Autowired EntityManager entityManager;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    EntityManager requestEntityManager;
+
+    /**
+     * open-session-in-view 처럼 요청 내내 쓰는 EntityManager 를 묶어 둔다.
+     */
+    @BeforeEach
+    void openEntityManager() {
+        requestEntityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(requestEntityManager));
+    }
+
+    @AfterEach
+    void closeEntityManager() {
+        TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        requestEntityManager.close();
+    }
+
+    @DisplayName("요청 내내 열린 EntityManager 에서도 트랜잭션마다 연결을 다시 골라 읽기 전용 다음의 쓰기 트랜잭션은 primary 로 감")
+    @Test
+    void routesEachTransactionWithOpenEntityManager() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertEquals("REPLICA", readOnly.execute(status -> ReadOnlyRoutingDataSource.readFromReplica(this::currentUser)));
+        assertEquals("SA", readWrite.execute(status -> currentUser()));
+        assertEquals("REPLICA", readOnly.execute(status -> ReadOnlyRoutingDataSource.readFromReplica(this::currentUser)));
+    }
+
+    @DisplayName("replica 에서 읽겠다고 하지 않은 읽기 전용 트랜잭션은 primary 로 감")
+    @Test
+    void readOnlyWithoutHintUsesPrimary() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        assertEquals("SA", readOnly.execute(status -> currentUser()));
+    }
+
+    private String currentUser() {
+        return (String) entityManager.createNativeQuery("select user()").getSingleResult();
+    }
+}
@@ -0,0 +1,50 @@
+package com.studyolle.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "app.mail.poll-interval=1h")
+class SequenceAlignerTest {
+
+    @Autowired SequenceAligner sequenceAligner;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from tag where title = 'aligned-tag'");
+    }
+
+    @DisplayName("뒤처지지 않은 시퀀스는 nextval 로 값을 쓰지 않음")
+    @Test
+    void leavesAlignedSequences() throws Exception {
+        long before = currentValue("TAG_SEQ");
+
+        sequenceAligner.align();
+
+        assertEquals(before, currentValue("TAG_SEQ"));
+    }
+
+    @DisplayName("가장 큰 id 보다 뒤처진 시퀀스는 그다음 값부터 다시 시작")
+    @Test
+    void restartsSequenceBehindMaxId() throws Exception {
+        long maxId = currentValue("TAG_SEQ") + 1_000;
+        jdbcTemplate.update("insert into tag (id, title) values (?, 'aligned-tag')", maxId);
+
+        sequenceAligner.align();
+
+        assertEquals(maxId + 1, jdbcTemplate.queryForObject("select next value for tag_seq", Long.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from reference_data_version where name = ?", Integer.class, SequenceAligner.LOCK_NAME));
+    }
+
+    private long currentValue(String sequence) {
+        return jdbcTemplate.queryForObject("select current_value from information_schema.sequences where sequence_name = ?",
+                Long.class, sequence);
+    }
+}
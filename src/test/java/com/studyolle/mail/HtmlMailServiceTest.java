@@ -0,0 +1,69 @@
+package com.studyolle.mail;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HtmlMailServiceTest {
+
+    @DisplayName("여러 메일을 하나의 SMTP 연결로 보냄")
+    @Test
+    void sendsBatchOverOneConnection() throws Exception {
+        try (FakeSmtpServer smtpServer = new FakeSmtpServer()) {
+            JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+            javaMailSender.setHost("localhost");
+            javaMailSender.setPort(smtpServer.getPort());
+
+            List<EmailForm> emailForms = IntStream.range(0, 5)
+                    .mapToObj(i -> EmailForm.builder()
+                            .to("user" + i + "@email.com")
+                            .subject("subject" + i)
+                            .message("<p>message" + i + "</p>")
+                            .build())
+                    .collect(Collectors.toList());
+            new HtmlMailService(javaMailSender).send(emailForms);
+
+            assertEquals(5, smtpServer.getMessages());
+            assertEquals(1, smtpServer.getConnections());
+        }
+    }
+
+    @DisplayName("만들 수 없는 메일만 실패로 돌리고 나머지는 보냄")
+    @Test
+    void malformedEmailDoesNotFailBatch() throws Exception {
+        try (FakeSmtpServer smtpServer = new FakeSmtpServer()) {
+            JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+            javaMailSender.setHost("localhost");
+            javaMailSender.setPort(smtpServer.getPort());
+
+            EmailForm malformed = EmailForm.builder()
+                    .to("broken@@email..com")
+                    .subject("subject")
+                    .message("<p>message</p>")
+                    .build();
+            List<EmailForm> emailForms = List.of(emailForm(0), malformed, emailForm(1));
+
+            MailTransportException exception = assertThrows(MailTransportException.class,
+                    () -> new HtmlMailService(javaMailSender).send(emailForms));
+
+            assertEquals(List.of(malformed), exception.getFailedEmails());
+            assertEquals(2, smtpServer.getMessages());
+            assertEquals(1, smtpServer.getConnections());
+        }
+    }
+
+    private EmailForm emailForm(int i) {
+        return EmailForm.builder()
+                .to("user" + i + "@email.com")
+                .subject("subject" + i)
+                .message("<p>message" + i + "</p>")
+                .build();
+    }
+}
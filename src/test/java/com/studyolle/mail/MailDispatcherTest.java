@@ -0,0 +1,43 @@
+package com.studyolle.mail;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MailDispatcherTest {
+
+    @DisplayName("가득 찬 배치를 보냈으면 남은 메일이 없을 때까지 이어서 꺼냄")
+    @Test
+    void drainsUntilBatchIsNotFull() {
+        MailOutboxRelay mailOutboxRelay = mock(MailOutboxRelay.class);
+        given(mailOutboxRelay.relay()).willReturn(20, 20, 3);
+
+        new MailDispatcher(mailOutboxRelay, new MailQueueProperties()).drain();
+
+        verify(mailOutboxRelay, times(3)).relay();
+    }
+
+    @DisplayName("깨우면 폴링 간격을 기다리지 않고 꺼냄")
+    @Test
+    void wakeUpDrainsImmediately() {
+        MailOutboxRelay mailOutboxRelay = mock(MailOutboxRelay.class);
+        MailQueueProperties properties = new MailQueueProperties();
+        properties.setPollInterval(Duration.ofHours(1));
+        MailDispatcher mailDispatcher = new MailDispatcher(mailOutboxRelay, properties);
+
+        mailDispatcher.start();
+        try {
+            mailDispatcher.wakeUp();
+            verify(mailOutboxRelay, timeout(5000)).relay();
+        } finally {
+            mailDispatcher.stop();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.studyolle.mail;
+
+import com.studyolle.domain.MailOutbox;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {"app.mail.poll-interval=1h", "app.mail.initial-backoff=1m"})
+class MailOutboxRelayTest {
+
+    @Autowired EmailService emailService;
+    @Autowired MailOutboxRepository mailOutboxRepository;
+    @Autowired MailOutboxRelay mailOutboxRelay;
+    @Autowired PlatformTransactionManager transactionManager;
+    @MockBean MailTransport mailTransport;
+
+    @AfterEach
+    void afterEach() {
+        mailOutboxRepository.deleteAll();
+    }
+
+    @DisplayName("커밋된 메일은 아웃박스를 거쳐 보내짐")
+    @Test
+    void relayCommittedEmail() throws Exception {
+        EmailForm emailForm = emailForm();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> emailService.send(emailForm));
+
+        waitUntil(() -> mailOutboxRepository.findAll().stream().allMatch(mailOutbox -> mailOutbox.getSentAt() != null));
+
+        verify(mailTransport).send(List.of(emailForm));
+        assertEquals(0, mailOutboxRelay.relay());
+        verifyNoMoreInteractions(mailTransport);
+    }
+
+    @DisplayName("롤백된 트랜잭션의 메일은 아웃박스에 남지 않음")
+    @Test
+    void rollbackDiscardsEmail() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            emailService.send(emailForm());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(mailOutboxRepository.findAll().isEmpty());
+        verify(mailTransport, never()).send(any());
+    }
+
+    @DisplayName("전송에 실패한 메일은 나중에 다시 보내도록 남겨둠")
+    @Test
+    void failedEmailIsRetriedLater() throws Exception {
+        EmailForm emailForm = emailForm();
+        willThrow(new MailTransportException(List.of(emailForm), new RuntimeException("451")))
+                .given(mailTransport).send(anyList());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> emailService.send(emailForm));
+
+        waitUntil(() -> mailOutboxRepository.findAll().stream().allMatch(mailOutbox -> mailOutbox.getAttempts() == 1));
+
+        MailOutbox mailOutbox = mailOutboxRepository.findAll().get(0);
+        assertNull(mailOutbox.getSentAt());
+        assertNull(mailOutbox.getFailedAt());
+        assertTrue(mailOutbox.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertEquals(0, mailOutboxRelay.relay());
+    }
+
+    @DisplayName("한 배치에서 실패한 메일만 다시 보내고 나머지는 보낸 것으로 기록")
+    @Test
+    void onlyFailedEmailIsRetried() throws Exception {
+        EmailForm good = emailForm();
+        EmailForm bad = EmailForm.builder().to("broken@@email..com").subject("subject").message("<p>message</p>").build();
+        willThrow(new MailTransportException(List.of(bad), new RuntimeException("invalid address")))
+                .given(mailTransport).send(anyList());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            emailService.send(good);
+            emailService.send(bad);
+        });
+        waitUntil(() -> mailOutboxRepository.findAll().stream()
+                .allMatch(mailOutbox -> mailOutbox.getSentAt() != null || mailOutbox.getAttempts() == 1));
+
+        List<MailOutbox> rows = mailOutboxRepository.findAll();
+        MailOutbox sent = rows.stream().filter(row -> row.getRecipient().equals(good.getTo())).findFirst().orElseThrow();
+        MailOutbox retried = rows.stream().filter(row -> row.getRecipient().equals(bad.getTo())).findFirst().orElseThrow();
+        assertNotNull(sent.getSentAt());
+        assertNull(retried.getSentAt());
+        assertEquals(1, retried.getAttempts());
+    }
+
+    @DisplayName("꺼낸 메일은 커밋한 뒤 트랜잭션 밖에서 보내고, 보내는 동안 다른 워커가 다시 꺼내지 않음")
+    @Test
+    void sendsOutsideClaimTransaction() throws Exception {
+        AtomicBoolean inTransaction = new AtomicBoolean(true);
+        AtomicInteger claimedAgain = new AtomicInteger(-1);
+        willAnswer(invocation -> {
+            inTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            claimedAgain.set(mailOutboxRelay.relay());
+            return null;
+        }).given(mailTransport).send(anyList());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> emailService.send(emailForm()));
+        waitUntil(() -> mailOutboxRepository.findAll().stream().allMatch(mailOutbox -> mailOutbox.getSentAt() != null));
+
+        assertFalse(inTransaction.get());
+        assertEquals(0, claimedAgain.get());
+        assertNotNull(mailOutboxRepository.findAll().get(0).getSentAt());
+    }
+
+    @DisplayName("보낸 지 보관 기간이 지난 행만 지움")
+    @Test
+    void purgeSent() {
+        LocalDateTime now = LocalDateTime.now();
+        mailOutboxRepository.saveAll(List.of(
+                outbox(now.minusDays(8), now.minusDays(8)),
+                outbox(now.minusDays(1), now.minusDays(1)),
+                outbox(now.minusDays(8), null)));
+
+        assertEquals(1, mailOutboxRelay.purgeSent());
+        assertEquals(2, mailOutboxRepository.count());
+    }
+
+    private MailOutbox outbox(LocalDateTime createdAt, LocalDateTime sentAt) {
+        return MailOutbox.builder()
+                .recipient("today8934@email.com").subject("subject").message("<p>message</p>")
+                .createdAt(createdAt).nextAttemptAt(LocalDateTime.now().plusHours(1)).sentAt(sentAt)
+                .build();
+    }
+
+    @DisplayName("재시도 간격은 두 배씩 늘다가 넘치지 않고 멈춤")
+    @Test
+    void backoffIsCapped() {
+        Duration initialBackoff = Duration.ofSeconds(1);
+
+        assertEquals(Duration.ofSeconds(1), MailOutboxRelay.backoff(initialBackoff, 0));
+        assertEquals(Duration.ofSeconds(8), MailOutboxRelay.backoff(initialBackoff, 3));
+        Duration max = initialBackoff.multipliedBy(1L << MailOutboxRelay.MAX_BACKOFF_SHIFT);
+        assertEquals(max, MailOutboxRelay.backoff(initialBackoff, 64));
+        assertEquals(max, MailOutboxRelay.backoff(initialBackoff, 1000));
+
+        MailOutbox mailOutbox = MailOutbox.builder().attempts(1000).build();
+        mailOutbox.failed(Integer.MAX_VALUE, MailOutboxRelay.backoff(initialBackoff, mailOutbox.getAttempts()));
+        assertTrue(mailOutbox.getNextAttemptAt().isAfter(LocalDateTime.now()));
+    }
+
+    private EmailForm emailForm() {
+        return EmailForm.builder()
+                .to("today8934@email.com")
+                .subject("스터디올래, 회원 가입 인증")
+                .message("<p>message</p>")
+                .build();
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
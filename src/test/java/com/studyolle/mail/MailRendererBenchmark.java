@@ -0,0 +1,93 @@
+package com.studyolle.mail;
+
+import com.studyolle.config.AppProperties;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.function.Function;
+
+/**
+ * mail/simple-link 메일을 받는 사람마다 Thymeleaf 로 렌더링할 때와 미리 컴파일한 {@link MailTemplate}로 렌더링할 때의
+ * 초당 메일 수를 비교한다. 테스트가 아니라 직접 실행한다.
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.studyolle.mail.MailRendererBenchmark
+ * </pre>
+ */
+public class MailRendererBenchmark {
+
+    private static final String HOST = "http://localhost:8080";
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 100_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        TemplateEngine templateEngine = templateEngine();
+        AppProperties appProperties = new AppProperties();
+        appProperties.setHost(HOST);
+        MailRenderer mailRenderer = new MailRenderer(templateEngine, appProperties);
+        mailRenderer.compileTemplates();
+
+        Function<SimpleLinkMail, String> thymeleaf = mail -> process(templateEngine, mail);
+        Function<SimpleLinkMail, String> precompiled = mailRenderer::render;
+        if (!thymeleaf.apply(mail(0)).equals(precompiled.apply(mail(0)))) {
+            throw new IllegalStateException("두 방식의 렌더링 결과가 다릅니다.");
+        }
+
+        measure(thymeleaf, WARMUP);
+        measure(precompiled, WARMUP);
+        for (int round = 1; round <= ROUNDS; round++) {
+            double thymeleafRate = measure(thymeleaf, MEASURED);
+            double precompiledRate = measure(precompiled, MEASURED);
+            System.out.printf("round %d  thymeleaf %,10.0f mails/s  precompiled %,10.0f mails/s  x%.1f%n",
+                    round, thymeleafRate, precompiledRate, precompiledRate / thymeleafRate);
+        }
+    }
+
+    /**
+     * @return 초당 렌더링한 메일 수
+     */
+    private static double measure(Function<SimpleLinkMail, String> renderer, int mails) {
+        long length = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < mails; i++) {
+            length += renderer.apply(mail(i)).length();
+        }
+        long nanos = System.nanoTime() - start;
+        if (length == 0) {
+            throw new IllegalStateException();
+        }
+        return mails * 1e9 / nanos;
+    }
+
+    private static SimpleLinkMail mail(int i) {
+        return SimpleLinkMail.builder()
+                .nickname("user" + i)
+                .message("스터디올레 서비스를 사용하려면 링크를 클릭하세요.")
+                .link("/check-email-token?token=" + i + "&email=user" + i + "@email.com")
+                .linkName("이메일 인증하기")
+                .build();
+    }
+
+    private static String process(TemplateEngine templateEngine, SimpleLinkMail mail) {
+        Context context = new Context();
+        context.setVariable("host", HOST);
+        context.setVariable("nickname", mail.getNickname());
+        context.setVariable("message", mail.getMessage());
+        context.setVariable("link", mail.getLink());
+        context.setVariable("linkName", mail.getLinkName());
+        return templateEngine.process("mail/simple-link", context);
+    }
+
+    private static TemplateEngine templateEngine() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        return templateEngine;
+    }
+}
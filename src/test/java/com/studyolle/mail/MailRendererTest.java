@@ -0,0 +1,56 @@
+package com.studyolle.mail;
+
+import com.studyolle.config.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MailRendererTest {
+
+    TemplateEngine templateEngine;
+    MailRenderer mailRenderer;
+
+    @BeforeEach
+    void beforeEach() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setCharacterEncoding("UTF-8");
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+
+        AppProperties appProperties = new AppProperties();
+        appProperties.setHost("http://localhost:8080");
+        mailRenderer = new MailRenderer(templateEngine, appProperties);
+        mailRenderer.compileTemplates();
+    }
+
+    @DisplayName("미리 컴파일한 템플릿은 Thymeleaf 와 같은 결과를 냄")
+    @Test
+    void sameAsTemplateEngine() {
+        SimpleLinkMail mail = SimpleLinkMail.builder()
+                .nickname("<b>today8934</b>")
+                .message("스터디올레 서비스를 사용하려면 링크를 클릭하세요. \"'&")
+                .link("/check-email-token?token=abc&email=today8934@email.com")
+                .linkName("이메일 인증하기")
+                .build();
+
+        assertEquals(process(mail), mailRenderer.render(mail));
+    }
+
+    private String process(SimpleLinkMail mail) {
+        Context context = new Context();
+        context.setVariable("host", "http://localhost:8080");
+        context.setVariable("nickname", mail.getNickname());
+        context.setVariable("message", mail.getMessage());
+        context.setVariable("link", mail.getLink());
+        context.setVariable("linkName", mail.getLinkName());
+        return templateEngine.process("mail/simple-link", context);
+    }
+}
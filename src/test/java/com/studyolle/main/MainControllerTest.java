@@ -3,6 +3,13 @@ package com.studyolle.main;
 import com.studyolle.account.AccountRepository;
 import com.studyolle.account.AccountService;
 import com.studyolle.account.SignUpForm;
+import com.studyolle.domain.Study;
+import com.studyolle.domain.Tag;
+import com.studyolle.domain.Zone;
+import com.studyolle.study.StudyRepository;
+import com.studyolle.study.StudySummary;
+import com.studyolle.tag.TagRepository;
+import com.studyolle.zone.ZoneRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,16 +17,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -34,6 +53,15 @@ class MainControllerTest {
     @Autowired
     AccountRepository accountRepository;
 
+    @Autowired
+    StudyRepository studyRepository;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @Autowired
+    ZoneRepository zoneRepository;
+
     @BeforeEach
     void beforeEach() {
         SignUpForm signUpForm = new SignUpForm();
@@ -45,6 +73,7 @@ class MainControllerTest {
 
     @AfterEach
     void afterEach() {
+        studyRepository.deleteAll();
         accountRepository.deleteAll();
     }
 
@@ -94,4 +123,56 @@ class MainControllerTest {
                 .andExpect(redirectedUrl("/"))
                 .andExpect(unauthenticated());
     }
-}
\ No newline at end of file
+
+    @DisplayName("홈 피드 - 관심 태그와 지역이 모두 맞는 모집 중인 스터디, 관심사를 바꾸면 바로 갱신")
+    @Test
+    void home_feed() throws Exception {
+        Long accountId = accountRepository.findByNickname("wooksang").getId();
+        Tag spring = tagRepository.save(Tag.builder().title("feed-spring").build());
+        Tag jpa = tagRepository.save(Tag.builder().title("feed-jpa").build());
+        Tag java = tagRepository.save(Tag.builder().title("feed-java").build());
+        List<Zone> zones = zoneRepository.findAll(PageRequest.of(0, 2)).getContent();
+        accountService.addTag(accountId, spring);
+        accountService.addTag(accountId, jpa);
+        accountService.addZone(accountId, zones.get(0));
+
+        createStudy("feed-match", true, Set.of(spring, jpa), zones);
+        createStudy("feed-other-tag", true, Set.of(java), zones);
+        createStudy("feed-other-zone", true, Set.of(spring), Set.of(zones.get(1)));
+        createStudy("feed-not-recruiting", false, Set.of(spring), zones);
+        assertEquals(List.of("feed-match"), feedPaths());
+
+        createStudy("feed-java", true, Set.of(java), Set.of(zones.get(0)));
+        assertEquals(List.of("feed-match"), feedPaths());
+
+        accountService.addTag(accountId, java);
+        assertEquals(List.of("feed-java", "feed-other-tag", "feed-match"), feedPaths());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> feedPaths() throws Exception {
+        UserDetails principal = accountService.loadUserByUsername("wooksang");
+        List<StudySummary> studyList = (List<StudySummary>) mockMvc.perform(get("/").with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(view().name("index"))
+                .andReturn().getModelAndView().getModel().get("studyList");
+        return studyList.stream().map(StudySummary::getPath).collect(Collectors.toList());
+    }
+
+    private void createStudy(String path, boolean recruiting, Set<Tag> tags, Iterable<Zone> zones) {
+        Set<Zone> studyZones = new HashSet<>();
+        zones.forEach(studyZones::add);
+        studyRepository.save(Study.builder()
+                .path(path)
+                .title(path)
+                .shortDescription("짧은 소개")
+                .published(true)
+                .publishedDateTime(LocalDateTime.now())
+                .recruiting(recruiting)
+                .managers(new HashSet<>())
+                .members(new HashSet<>())
+                .tags(new HashSet<>(tags))
+                .zones(studyZones)
+                .build());
+    }
+}
@@ -0,0 +1,105 @@
+package com.studyolle.search;
+
+import com.studyolle.domain.Study;
+import com.studyolle.domain.StudyDetail;
+import com.studyolle.study.StudyRepository;
+import com.studyolle.study.StudyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@SpringBootTest(properties = "app.mail.poll-interval=1h")
+@AutoConfigureMockMvc
+class SearchControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired StudyService studyService;
+    @Autowired StudyRepository studyRepository;
+    @Autowired StudySearchIndex studySearchIndex;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void afterEach() {
+        studyRepository.findAll().forEach(study -> studySearchIndex.remove(study.getId()));
+        studyRepository.deleteAll();
+    }
+
+    @DisplayName("공개한 스터디는 커밋된 뒤에 검색됨")
+    @Test
+    void search_published_study() throws Exception {
+        Long studyId = new TransactionTemplate(transactionManager).execute(status -> {
+            Study study = createStudy("searchable", "검색 스터디");
+            studyService.publishStudy(study);
+            return study.getId();
+        });
+
+        Page<?> studies = search("검색");
+        assertEquals(1, studies.getTotalElements());
+        assertEquals(studyId, ((StudyDocument) studies.getContent().get(0)).getId());
+        assertEquals(1, search("엘라스틱서치").getTotalElements());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                studyService.updateTitle(studyRepository.findById(studyId).orElseThrow(), "제목 바꿈"));
+        assertEquals(0, search("검색").getTotalElements());
+        assertEquals(1, search("제목").getTotalElements());
+    }
+
+    @DisplayName("롤백된 공개와 공개하지 않은 스터디는 검색되지 않음")
+    @Test
+    void search_rolled_back_study() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            createStudy("draft", "검색 초안");
+        });
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            studyService.publishStudy(createStudy("rollback", "검색 롤백"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, search("검색").getTotalElements());
+    }
+
+    @DisplayName("태그와 지역 링크는 검색 화면으로 보냄")
+    @Test
+    void redirect_facet_links() throws Exception {
+        mockMvc.perform(get("/search/tag/spring boot"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/search/study?tag=spring+boot"));
+        mockMvc.perform(get("/search/zone/1"))
+                .andExpect(redirectedUrl("/search/study?zone=1"));
+    }
+
+    private Page<?> search(String keyword) throws Exception {
+        return (Page<?>) mockMvc.perform(get("/search/study").param("keyword", keyword))
+                .andExpect(status().isOk())
+                .andExpect(view().name("search"))
+                .andReturn().getModelAndView().getModel().get("studyPage");
+    }
+
+    private Study createStudy(String path, String title) {
+        return studyRepository.save(Study.builder()
+                .path(path)
+                .title(title)
+                .shortDescription("짧은 소개")
+                .detail(StudyDetail.builder().fullDescription("<p>엘라스틱서치 없이</p>").build())
+                .managers(new HashSet<>())
+                .members(new HashSet<>())
+                .tags(new HashSet<>())
+                .zones(new HashSet<>())
+                .build());
+    }
+}
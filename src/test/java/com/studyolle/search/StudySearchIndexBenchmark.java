@@ -0,0 +1,100 @@
+package com.studyolle.search;
+
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 스터디 10만 개를 색인하고 검색어 종류별 응답 시간 분포를 잰다. 단어의 4분의 1은 거의 모든 스터디에 나오는 흔한 단어,
+ * 나머지는 2만 개 중에서 고른 드문 단어다. 테스트가 아니라 직접 실행한다.
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.studyolle.search.StudySearchIndexBenchmark
+ * </pre>
+ */
+public class StudySearchIndexBenchmark {
+
+    private static final int STUDIES = 100_000;
+    private static final int WARMUP = 500;
+    private static final int MEASURED = 2_000;
+    private static final int RARE_WORDS = 20_000;
+
+    private static final String[] WORDS = {
+            "스프링", "자바", "코틀린", "리액트", "알고리즘", "코딩테스트", "영어", "토익", "면접", "디자인",
+            "spring", "java", "kotlin", "react", "docker", "kubernetes", "jpa", "aws", "python", "go",
+            "입문", "심화", "주말", "평일", "온라인", "오프라인", "모각코", "프로젝트", "스터디", "함께"};
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        StudySearchIndex index = new StudySearchIndex();
+
+        long start = System.nanoTime();
+        for (long id = 1; id <= STUDIES; id++) {
+            index.index(StudyDocument.builder()
+                    .id(id)
+                    .path("study-" + id)
+                    .title(words(random, 3))
+                    .shortDescription(words(random, 8))
+                    .tagTitles(IntStream.range(0, 3).mapToObj(i -> WORDS[random.nextInt(20)]).distinct().collect(Collectors.toList()))
+                    .zoneIds(Set.of((long) random.nextInt(200)))
+                    .publishedDateTime(LocalDateTime.of(2021, 1, 1, 0, 0).plusMinutes(id))
+                    .build(), "<p>" + words(random, 60) + "</p>");
+        }
+        System.out.printf("indexed %d studies in %d ms%n", index.size(), (System.nanoTime() - start) / 1_000_000);
+
+        measure(index, "no keyword", () -> new String[]{"", null, null});
+        measure(index, "common term", () -> new String[]{WORDS[random.nextInt(WORDS.length)], null, null});
+        measure(index, "rare term", () -> new String[]{rareWord(random), null, null});
+        measure(index, "common + rare", () -> new String[]{WORDS[random.nextInt(WORDS.length)] + " " + rareWord(random), null, null});
+        measure(index, "prefix", () -> new String[]{WORDS[random.nextInt(WORDS.length)].substring(0, 2), null, null});
+        measure(index, "term + tag + zone", () -> new String[]{WORDS[random.nextInt(WORDS.length)],
+                WORDS[random.nextInt(20)], String.valueOf(random.nextInt(200))});
+    }
+
+    private static void measure(StudySearchIndex index, String name, QuerySupplier queries) {
+        for (int i = 0; i < WARMUP; i++) {
+            search(index, queries.next());
+        }
+
+        long[] nanos = new long[MEASURED];
+        long hits = 0;
+        for (int i = 0; i < MEASURED; i++) {
+            String[] query = queries.next();
+            long start = System.nanoTime();
+            hits += search(index, query).getStudies().getTotalElements();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-18s avg hits %6d  p50 %6.2f ms  p99 %6.2f ms  max %6.2f ms%n", name, hits / MEASURED,
+                nanos[MEASURED / 2] / 1e6, nanos[MEASURED * 99 / 100] / 1e6, nanos[MEASURED - 1] / 1e6);
+    }
+
+    private static StudySearchResult search(StudySearchIndex index, String[] query) {
+        List<String> tags = query[1] == null ? List.of() : List.of(query[1]);
+        List<Long> zones = query[2] == null ? List.of() : List.of(Long.valueOf(query[2]));
+        return index.search(query[0], tags, zones, PageRequest.of(0, 9));
+    }
+
+    private static String words(Random random, int count) {
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            words.add(random.nextInt(4) == 0 ? WORDS[random.nextInt(WORDS.length)] : rareWord(random));
+        }
+        return String.join(" ", words);
+    }
+
+    private static String rareWord(Random random) {
+        return "word" + random.nextInt(RARE_WORDS);
+    }
+
+    private interface QuerySupplier {
+        String[] next();
+    }
+}
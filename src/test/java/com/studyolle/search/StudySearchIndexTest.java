@@ -0,0 +1,127 @@
+package com.studyolle.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StudySearchIndexTest {
+
+    StudySearchIndex index = new StudySearchIndex();
+
+    @DisplayName("모든 검색어를 포함한 스터디만, 제목에서 맞은 스터디가 먼저")
+    @Test
+    void search_ranking() {
+        index(1L, "자바 입문", "같이 공부해요", "<p>Spring 은 나중에</p>", List.of("java"), Set.of());
+        index(2L, "Spring 스터디", "스프링 부트 실습", "<p>자바를 조금 알아야 합니다</p>", List.of("spring"), Set.of());
+        index(3L, "JPA 스터디", "ORM", "<p>스프링 데이터 JPA</p>", List.of("jpa"), Set.of());
+
+        assertEquals(List.of(2L, 1L), ids(search("spring")));
+        assertEquals(List.of(2L, 3L), ids(search("스프링")));
+        assertEquals(List.of(2L), ids(search("spring 스터디")));
+        assertEquals(List.of(), ids(search("python")));
+    }
+
+    @DisplayName("조사가 붙은 단어와 HTML 은 접두어와 태그 제거로 찾음")
+    @Test
+    void search_prefix_and_markup() {
+        index(1L, "Kotlin", "", "<p>코틀린을 <b>함께</b> 배워요&nbsp;</p>", List.of(), Set.of());
+
+        assertEquals(List.of(1L), ids(search("코틀린")));
+        assertEquals(List.of(1L), ids(search("KOT")));
+        assertEquals(List.of(), ids(search("nbsp")));
+        assertEquals(List.of(), ids(search("b")));
+    }
+
+    @DisplayName("태그는 모두, 지역은 하나라도 맞는 스터디만 남기고 패싯을 셈")
+    @Test
+    void search_facets() {
+        index(1L, "study one", "", "", List.of("java", "spring"), Set.of(10L));
+        index(2L, "study two", "", "", List.of("java"), Set.of(20L));
+        index(3L, "study three", "", "", List.of("java", "spring"), Set.of(20L, 30L));
+
+        StudySearchResult result = index.search("study", List.of("java"), List.of(), PageRequest.of(0, 10));
+        assertEquals(Map.of("java", 3, "spring", 2), result.getTagFacets());
+        assertEquals(List.of("java", "spring"), List.copyOf(result.getTagFacets().keySet()));
+        assertEquals(List.of(20L, 10L, 30L), List.copyOf(result.getZoneFacets().keySet()));
+
+        result = index.search("", List.of("java", "spring"), List.of(20L, 10L), PageRequest.of(0, 10));
+        assertEquals(Set.of(1L, 3L), Set.copyOf(ids(result)));
+        assertEquals(Map.of(10L, 1, 20L, 1, 30L, 1), result.getZoneFacets());
+    }
+
+    @DisplayName("검색어가 없으면 최근 공개 순으로 페이지를 나눔")
+    @Test
+    void search_paging() {
+        for (long id = 1; id <= 25; id++) {
+            index(id, "study " + id, "", "", List.of(), Set.of());
+        }
+
+        StudySearchResult result = index.search(" ", List.of(), List.of(), PageRequest.of(1, 10));
+        assertEquals(25, result.getStudies().getTotalElements());
+        assertEquals(3, result.getStudies().getTotalPages());
+        assertEquals(List.of(15L, 14L, 13L, 12L, 11L, 10L, 9L, 8L, 7L, 6L), ids(result));
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), ids(index.search("", List.of(), List.of(), PageRequest.of(2, 10))));
+        assertTrue(index.search("", List.of(), List.of(), PageRequest.of(3, 10)).getStudies().getContent().isEmpty());
+    }
+
+    @DisplayName("다시 색인하면 예전 내용은 검색되지 않고, 지우면 빠짐")
+    @Test
+    void reindex_and_remove() {
+        index(1L, "before", "", "", List.of("old"), Set.of());
+        index(1L, "after", "", "", List.of("new"), Set.of());
+
+        assertEquals(List.of(), ids(search("before")));
+        assertEquals(List.of(1L), ids(search("after")));
+        assertEquals(Map.of("new", 1), search("").getTagFacets());
+
+        index.remove(1L);
+        assertEquals(0, index.size());
+        assertEquals(List.of(), ids(search("after")));
+    }
+
+    @DisplayName("지운 문서가 쌓이면 정리해도 검색 결과는 같음")
+    @Test
+    void compact() {
+        for (int round = 0; round < 3; round++) {
+            for (long id = 1; id <= 1000; id++) {
+                index(id, "round" + round + " study", "", "", List.of("tag" + id % 3), Set.of(id % 5));
+            }
+        }
+
+        assertEquals(1000, index.size());
+        assertEquals(0, search("round0").getStudies().getTotalElements());
+        assertEquals(1000, search("round2").getStudies().getTotalElements());
+        assertEquals(334, index.search("study", List.of("tag1"), List.of(), PageRequest.of(0, 10))
+                .getStudies().getTotalElements());
+    }
+
+    private StudySearchResult search(String keyword) {
+        return index.search(keyword, List.of(), List.of(), PageRequest.of(0, 10));
+    }
+
+    private List<Long> ids(StudySearchResult result) {
+        return result.getStudies().getContent().stream().map(StudyDocument::getId).collect(Collectors.toList());
+    }
+
+    private void index(Long id, String title, String shortDescription, String fullDescription,
+                       List<String> tags, Set<Long> zoneIds) {
+        index.index(StudyDocument.builder()
+                .id(id)
+                .path("study-" + id)
+                .title(title)
+                .shortDescription(shortDescription)
+                .tagTitles(tags)
+                .zoneIds(zoneIds)
+                .publishedDateTime(LocalDateTime.of(2021, 1, 1, 0, 0).plusDays(id))
+                .build(), fullDescription);
+    }
+}
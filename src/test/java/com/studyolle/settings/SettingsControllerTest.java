@@ -1,6 +1,7 @@
 package com.studyolle.settings;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyolle.JdbcStatementCounter;
 import com.studyolle.WithAccount;
 import com.studyolle.account.AccountRepository;
 import com.studyolle.account.AccountService;
@@ -8,7 +9,9 @@ import com.studyolle.domain.Account;
 import com.studyolle.domain.Tag;
 import com.studyolle.domain.Zone;
 import com.studyolle.settings.form.TagForm;
+import com.studyolle.settings.form.TagsForm;
 import com.studyolle.settings.form.ZoneForm;
+import com.studyolle.settings.form.ZonesForm;
 import com.studyolle.tag.TagRepository;
 import com.studyolle.zone.ZoneRepository;
 import jdk.jshell.spi.ExecutionControlProvider;
@@ -19,25 +22,43 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @Transactional
+@Import(JdbcStatementCounter.class)
 @ToString
 class SettingsControllerTest {
 
@@ -62,11 +83,38 @@ class SettingsControllerTest {
     @Autowired
     ZoneRepository zoneRepository;
 
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
     @AfterEach()
     void afterEach() {
         accountRepository.deleteAll();
     }
 
+    @DisplayName("닉네임 수정 - 다른 노드가 먼저 쓴 닉네임")
+    @Test
+    @WithAccount("wook")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void updateNickname_taken_elsewhere() throws Exception {
+        // 필터를 거치지 않고 저장해서 다른 노드가 저장한 값처럼 만든다
+        accountRepository.save(Account.builder()
+                .email("elsewhere@email.com").password("12345678").nickname("elsewhere").build());
+
+        mockMvc.perform(post(SettingsController.SETTINGS_ACCOUNT_URL)
+                        .param("nickname", "elsewhere")
+                        .with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(view().name(SettingsController.SETTINGS_ACCOUNT_VIEW_NAME))
+                .andExpect(model().attributeHasFieldErrors("nicknameForm", "nickname"));
+
+        assertNotNull(accountRepository.findByNickname("wook"));
+        mockMvc.perform(get(SettingsController.SETTINGS_ACCOUNT_URL))
+                .andExpect(model().attribute("nicknameForm", hasProperty("nickname", is("wook"))));
+    }
+
     @DisplayName("태그 수정 폼")
     @Test
     @WithAccount("wook")
@@ -74,7 +122,7 @@ class SettingsControllerTest {
         mockMvc.perform(get(SettingsController.SETTINGS_TAG_URL))
                 .andExpect(view().name(SettingsController.SETTINGS_TAG_VIEW_NAME))
                 .andExpect(model().attributeExists("account"))
-                .andExpect(model().attributeExists("whitelist"))
+                .andExpect(model().attributeDoesNotExist("whitelist"))
                 .andExpect(model().attributeExists("tags"));
     }
 
@@ -95,7 +143,7 @@ class SettingsControllerTest {
         assertNotNull(newTag);
         Account wook = accountRepository.findByNickname("wook");
 
-        assertTrue(wook.getTags().contains(newTag.get()));
+        assertTrue(accountService.getTagTitles(wook.getId()).contains(newTag.get().getTitle()));
     }
 
     @DisplayName("태그 삭제")
@@ -104,9 +152,9 @@ class SettingsControllerTest {
     void removeTag() throws Exception {
         Account wook = accountRepository.findByNickname("wook");
         Tag newTag = tagRepository.save(Tag.builder().title("newTag").build());
-        accountService.addTag(wook, newTag);
+        accountService.addTag(wook.getId(), newTag);
 
-        assertTrue(wook.getTags().contains(newTag));
+        assertTrue(accountService.getTagTitles(wook.getId()).contains("newTag"));
 
         TagForm tagForm = new TagForm();
         tagForm.setTagTitle("newTag");
@@ -117,7 +165,130 @@ class SettingsControllerTest {
                         .with(csrf()))
                 .andExpect(status().isOk());
 
-        assertFalse(wook.getTags().contains(newTag));
+        assertFalse(accountService.getTagTitles(wook.getId()).contains("newTag"));
+    }
+
+    @DisplayName("태그 목록 한 번에 수정")
+    @Test
+    @WithAccount("wook")
+    void replaceTags() throws Exception {
+        Account wook = accountRepository.findByNickname("wook");
+        accountService.addTag(wook.getId(), tagRepository.save(Tag.builder().title("keep").build()));
+        accountService.addTag(wook.getId(), tagRepository.save(Tag.builder().title("drop").build()));
+
+        TagsForm tagsForm = new TagsForm();
+        tagsForm.setTagTitles(List.of("keep", "newTag"));
+
+        mockMvc.perform(put(SettingsController.SETTINGS_TAG_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(tagsForm))
+                        .with(csrf()))
+                .andExpect(status().isOk());
+
+        entityManager.clear();
+        Set<String> titles = accountRepository.findByNickname("wook").getTags().stream()
+                .map(Tag::getTitle)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("keep", "newTag"), titles);
+    }
+
+    @DisplayName("활동지역 목록 한 번에 수정")
+    @Test
+    @WithAccount("wook")
+    void replaceZones() throws Exception {
+        ZonesForm zonesForm = new ZonesForm();
+        zonesForm.setZoneNames(List.of("Goyang(고양시)/Gyeonggi", "Andong(안동시)/North Gyeongsang", "Nowhere(없는곳)/None"));
+
+        mockMvc.perform(put(SettingsController.SETTINGS_ZONES_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(zonesForm))
+                        .with(csrf()))
+                .andExpect(status().isOk());
+
+        entityManager.clear();
+        Set<String> cities = accountRepository.findByNickname("wook").getZones().stream()
+                .map(Zone::getCity)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("Goyang", "Andong"), cities);
+    }
+
+    @DisplayName("태그 한 번에 수정 - 태그 수와 상관없이 같은 수의 문장")
+    @Test
+    @WithAccount("wook")
+    void replaceTags_statement_count() throws Exception {
+        List<String> titles = IntStream.range(0, 20).mapToObj(i -> "bench" + i).collect(Collectors.toList());
+        titles.forEach(title -> tagRepository.save(Tag.builder().title(title).build()));
+        entityManager.flush();
+
+        long single = 0;
+        for (String title : titles) {
+            TagForm tagForm = new TagForm();
+            tagForm.setTagTitle(title);
+            JdbcStatementCounter.clear();
+            mockMvc.perform(post(SettingsController.SETTINGS_TAG_URL + "/add")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(tagForm))
+                            .with(csrf()))
+                    .andExpect(status().isOk());
+            single += JdbcStatementCounter.getCount();
+        }
+
+        replaceTags(List.of());
+        long ten = replaceTags(titles.subList(0, 10));
+        replaceTags(List.of());
+        long twenty = replaceTags(titles);
+
+        entityManager.clear();
+        assertEquals(20, accountRepository.findByNickname("wook").getTags().size());
+        assertEquals(ten, twenty);
+        assertTrue(twenty * 5 < single, "bulk " + twenty + " statements, single " + single + " statements");
+    }
+
+    private long replaceTags(List<String> titles) throws Exception {
+        TagsForm tagsForm = new TagsForm();
+        tagsForm.setTagTitles(titles);
+        JdbcStatementCounter.clear();
+        mockMvc.perform(put(SettingsController.SETTINGS_TAG_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(tagsForm))
+                        .with(csrf()))
+                .andExpect(status().isOk());
+        return JdbcStatementCounter.getCount();
+    }
+
+    @DisplayName("같은 계정의 태그를 동시에 한 번에 수정")
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void replaceTags_concurrently() throws Exception {
+        Account account = accountRepository.save(Account.builder()
+                .nickname("racer").email("racer@email.com").password("12345678").build());
+        List<String> titles = IntStream.range(0, 10).mapToObj(i -> "race" + i).collect(Collectors.toList());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 10; round++) {
+                transactionTemplate.executeWithoutResult(status -> accountService.updateTags(account.getId(), List.of()));
+                CyclicBarrier barrier = new CyclicBarrier(4);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        transactionTemplate.executeWithoutResult(status -> accountService.updateTags(account.getId(), titles));
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+            }
+
+            Integer tagCount = transactionTemplate.execute(status ->
+                    accountRepository.findById(account.getId()).orElseThrow().getTags().size());
+            assertEquals(10, tagCount);
+        } finally {
+            executor.shutdownNow();
+            accountRepository.deleteAll();
+            tagRepository.deleteAllInBatch();
+        }
     }
 
     @DisplayName("활동지역 폼")
@@ -160,7 +331,7 @@ class SettingsControllerTest {
 
         byCityAndLocalNameOfCity.orElseThrow();
 
-        assertTrue(wook.getZones().contains(byCityAndLocalNameOfCity.get()));
+        assertTrue(accountService.getZoneNames(wook.getId()).contains(zoneName));
     }
 
     @DisplayName("활동지역 삭제")
@@ -173,17 +344,17 @@ class SettingsControllerTest {
         Optional<Zone> zone = zoneRepository.findByCityAndLocalNameOfCity(zoneForm.getCity(), zoneForm.getLocalNameOfCity());
 
         Account wook = accountRepository.findByNickname("wook");
-        accountService.addZones(wook, zone.get());
+        accountService.addZone(wook.getId(), zone.get());
 
         Optional<Zone> byCityAndLocalNameOfCity = zoneRepository.findByCityAndLocalNameOfCity(zoneForm.getCity(), zoneForm.getLocalNameOfCity());
 
         byCityAndLocalNameOfCity.orElseThrow();
 
-        assertTrue(wook.getZones().contains(byCityAndLocalNameOfCity.get()));
+        assertTrue(accountService.getZoneNames(wook.getId()).contains("Goyang(고양시)/Gyeonggi"));
 
-        accountService.removeZones(wook, zone.get());
+        accountService.removeZone(wook.getId(), zone.get());
 
-        assertFalse(wook.getZones().contains(byCityAndLocalNameOfCity.get()));
+        assertFalse(accountService.getZoneNames(wook.getId()).contains("Goyang(고양시)/Gyeonggi"));
     }
 
     @DisplayName("프로필 수정 폼")
@@ -215,6 +386,56 @@ class SettingsControllerTest {
         assertEquals(bio, wook.getBio());
     }
 
+    @DisplayName("프로필 이미지 수정 - 해시로 저장하고 캐시 가능한 URL로 제공")
+    @Test
+    @WithAccount("wook")
+    void updateProfileImage() throws Exception {
+        String dataUrl = "data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==";
+
+        mockMvc.perform(post(SettingsController.SETTINGS_PROFILE_URL)
+                        .param("profileImage", dataUrl)
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        Account wook = accountRepository.findByNickname("wook");
+        assertNotNull(wook.getProfileImageHash());
+        assertEquals("/images/profile/" + wook.getProfileImageHash(), wook.getProfileImageUrl());
+
+        String etag = "\"" + wook.getProfileImageHash() + "\"";
+        mockMvc.perform(get(wook.getProfileImageUrl()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", containsString("immutable")))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andExpect(content().contentType(MediaType.IMAGE_PNG));
+
+        mockMvc.perform(get(wook.getProfileImageUrl()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @DisplayName("프로필 이미지 수정 - 허용하지 않는 형식은 저장하지 않음")
+    @Test
+    @WithAccount("wook")
+    void updateProfileImage_svg() throws Exception {
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\"><script>alert(1)</script></svg>";
+        String dataUrl = "data:image/svg+xml;base64," + Base64.getEncoder().encodeToString(svg.getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(post(SettingsController.SETTINGS_PROFILE_URL)
+                        .param("profileImage", dataUrl)
+                        .with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(view().name(SettingsController.SETTINGS_PROFILE_VIEW_NAME))
+                .andExpect(model().attributeHasFieldErrors("profile", "profileImage"));
+
+        mockMvc.perform(post(SettingsController.SETTINGS_PROFILE_URL)
+                        .param("profileImage", "data:image/png;base64," + Base64.getEncoder().encodeToString(svg.getBytes(StandardCharsets.UTF_8)))
+                        .with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(model().attributeHasFieldErrors("profile", "profileImage"));
+
+        assertNull(accountRepository.findByNickname("wook").getProfileImageHash());
+    }
+
     @DisplayName("프로필 수정하기 - 입력값 에러")
     @Test
     @WithAccount("wook")
@@ -0,0 +1,260 @@
+package com.studyolle.study;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyolle.WithAccount;
+import com.studyolle.account.AccountRepository;
+import com.studyolle.domain.Account;
+import com.studyolle.domain.Study;
+import com.studyolle.domain.Tag;
+import com.studyolle.domain.Zone;
+import com.studyolle.tag.TagRepository;
+import com.studyolle.zone.ZoneRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@Transactional
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.mail.poll-interval=1h"
+})
+@AutoConfigureMockMvc
+class StudyControllerTest {
+
+    static final String STUDY_PATH = "test-study";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    StudyService studyService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @Autowired
+    ZoneRepository zoneRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    StudyRepository studyRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @DisplayName("스터디 화면 - 화면별 조회 행 수와 쿼리 수")
+    @Test
+    @WithAccount("wook")
+    void studyPages_fetch_plan() throws Exception {
+        Study study = new Study();
+        study.setPath(STUDY_PATH);
+        study.setTitle("테스트 스터디");
+        study.setShortDescription("짧은 소개");
+        study.setFullDescription("<p>아주 긴 상세 소개</p>");
+        studyService.createNewStudy(study, accountRepository.findByNickname("wook"));
+
+        for (int i = 0; i < 3; i++) {
+            study.getTags().add(tagRepository.save(Tag.builder().title("tag" + i).build()));
+            study.addMember(accountRepository.save(Account.builder()
+                    .nickname("member" + i)
+                    .email("member" + i + "@email.com")
+                    .password("12345678")
+                    .build()));
+        }
+        study.getZones().addAll(zoneRepository.findAll(PageRequest.of(0, 3)).getContent());
+        entityManager.flush();
+
+        assertPageFetch("", "study/view", 1, 6);
+        assertPageFetch("/members", "study/members", 3, 3);
+    }
+
+    @DisplayName("스터디 개설 - 다른 노드가 먼저 만든 경로")
+    @Test
+    @WithAccount("wook")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void newStudySubmit_path_taken_elsewhere() throws Exception {
+        // 필터를 거치지 않고 저장해서 다른 노드가 만든 스터디처럼 만든다
+        studyRepository.save(Study.builder()
+                .path("elsewhere-study").title("다른 노드 스터디").shortDescription("소개")
+                .managers(new HashSet<>()).members(new HashSet<>()).tags(new HashSet<>()).zones(new HashSet<>())
+                .build());
+        try {
+            mockMvc.perform(post("/new-study")
+                            .param("path", "elsewhere-study")
+                            .param("title", "테스트 스터디")
+                            .param("shortDescription", "짧은 소개")
+                            .param("fullDescription", "긴 소개")
+                            .with(csrf()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(view().name("study/form"))
+                    .andExpect(model().attributeHasFieldErrors("studyForm", "path"));
+
+            assertEquals(1, studyRepository.count());
+        } finally {
+            studyRepository.deleteAll();
+            accountRepository.deleteAll();
+        }
+    }
+
+    @DisplayName("스터디 가입, 탈퇴")
+    @Test
+    @WithAccount("wook")
+    void joinAndLeaveStudy() throws Exception {
+        Account manager = accountRepository.save(Account.builder()
+                .nickname("manager").email("manager@email.com").password("12345678").build());
+        Study study = studyService.createNewStudy(Study.builder()
+                .path(STUDY_PATH).title("테스트 스터디").shortDescription("짧은 소개")
+                .published(true).recruiting(true).publishedDateTime(LocalDateTime.now())
+                .managers(new HashSet<>()).members(new HashSet<>()).tags(new HashSet<>()).zones(new HashSet<>())
+                .build(), manager);
+        Account wook = accountRepository.findByNickname("wook");
+
+        mockMvc.perform(post("/study/" + STUDY_PATH + "/join"))
+                .andExpect(status().isForbidden());
+        assertFalse(studyRepository.existsByIdAndMembersId(study.getId(), wook.getId()));
+
+        mockMvc.perform(post("/study/" + STUDY_PATH + "/join").with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/study/" + STUDY_PATH + "/members"));
+        entityManager.clear();
+        assertTrue(studyRepository.existsByIdAndMembersId(study.getId(), wook.getId()));
+        assertEquals(1, studyRepository.findById(study.getId()).orElseThrow().getMemberCount());
+
+        mockMvc.perform(post("/study/" + STUDY_PATH + "/leave").with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/study/" + STUDY_PATH + "/members"));
+        entityManager.clear();
+        assertFalse(studyRepository.existsByIdAndMembersId(study.getId(), wook.getId()));
+        assertEquals(0, studyRepository.findById(study.getId()).orElseThrow().getMemberCount());
+    }
+
+    @DisplayName("스터디 목록 - 커서로 끝까지 넘겨도 빠지거나 겹치는 스터디 없이 페이지마다 쿼리 한 번")
+    @Test
+    void studies_keyset_pages() throws Exception {
+        Tag spring = tagRepository.save(Tag.builder().title("spring").build());
+        Zone zone = zoneRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        Account member = accountRepository.save(Account.builder()
+                .nickname("member").email("member@email.com").password("12345678").build());
+        LocalDateTime base = LocalDateTime.of(2021, 11, 1, 10, 0);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            // 다섯 개씩 같은 공개 시각이라 id 로 순서를 가른다
+            Study study = studyRepository.save(Study.builder()
+                    .path("study-" + i).title("스터디 " + i).shortDescription("소개")
+                    .published(i != 24).recruiting(i % 2 == 0).publishedDateTime(base.plusMinutes(i / 5))
+                    .managers(new HashSet<>()).members(new HashSet<>())
+                    .tags(i % 3 == 0 ? new HashSet<>(Set.of(spring)) : new HashSet<>())
+                    .zones(i % 4 == 0 ? new HashSet<>(Set.of(zone)) : new HashSet<>())
+                    .build());
+            if (i == 0) {
+                study.addMember(member);
+            }
+            if (study.isPublished()) {
+                expected.add(0, study.getPath());
+            }
+        }
+        entityManager.flush();
+        studyRepository.recountMembers();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<String> paths = new ArrayList<>();
+        String cursor = null;
+        do {
+            statistics.clear();
+            JsonNode page = getStudies(cursor, "size", "10");
+            page.get("studies").forEach(study -> paths.add(study.get("path").asText()));
+            cursor = page.get("next").isNull() ? null : page.get("next").asText();
+            assertEquals(1, statistics.getPrepareStatementCount());
+        } while (cursor != null);
+        assertEquals(expected, paths);
+
+        JsonNode last = getStudies(null, "size", "100").get("studies").get(23);
+        assertEquals("study-0", last.get("path").asText());
+        assertEquals(1, last.get("memberCount").asInt());
+        assertEquals("/images/default_banner.png", last.get("thumbnailImage").asText());
+
+        assertEquals(List.of("study-18", "study-12", "study-6", "study-0"), paths(getStudies(null, "tag", "spring", "recruiting", "true")));
+        assertEquals(List.of("study-20", "study-16", "study-12", "study-8", "study-4", "study-0"),
+                paths(getStudies(null, "zone", zone.getId().toString())));
+
+        mockMvc.perform(get("/studies").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode getStudies(String cursor, String... params) throws Exception {
+        MockHttpServletRequestBuilder request = get("/studies");
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        for (int i = 0; i < params.length; i += 2) {
+            request.param(params[i], params[i + 1]);
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private List<String> paths(JsonNode page) {
+        List<String> paths = new ArrayList<>();
+        page.get("studies").forEach(study -> paths.add(study.get("path").asText()));
+        return paths;
+    }
+
+    private void assertPageFetch(String url, String viewName, long studyRows, long statements) throws Exception {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/study/" + STUDY_PATH + url))
+                .andExpect(status().isOk())
+                .andExpect(view().name(viewName));
+
+        long rows = Arrays.stream(statistics.getQueries())
+                .filter(query -> query.startsWith("select generatedAlias0 from Study "))
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionRowCount())
+                .sum();
+        assertEquals(studyRows, rows, url + " 화면의 스터디 조회 행 수");
+        assertEquals(statements, statistics.getPrepareStatementCount(), url + " 화면의 쿼리 수");
+    }
+}
@@ -0,0 +1,57 @@
+package com.studyolle.study;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StudyFeedCacheTest {
+
+    StudyFeedCache cache = new StudyFeedCache(Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+
+    @DisplayName("읽는 동안 지우지 않았으면 넣는다")
+    @Test
+    void put() {
+        cache.evict(1L);
+        long version = cache.version();
+
+        cache.put(1L, List.of(), version);
+
+        assertNotNull(cache.get(1L));
+    }
+
+    @DisplayName("읽는 동안 지운 계정의 피드는 넣지 않는다")
+    @Test
+    void put_evicted_while_reading() {
+        long version = cache.version();
+        cache.evict(1L);
+
+        cache.put(1L, List.of(), version);
+        cache.put(2L, List.of(), version);
+
+        assertNull(cache.get(1L));
+        assertNotNull(cache.get(2L));
+    }
+
+    @DisplayName("크기 제한으로 잊은 지우기보다 먼저 읽은 피드는 넣지 않는다")
+    @Test
+    void put_after_forgotten_eviction() {
+        long version = cache.version();
+        for (long accountId = 1; accountId <= StudyFeedCache.MAX_SIZE + 1; accountId++) {
+            cache.evict(accountId);
+        }
+
+        cache.put(1L, List.of(), version);
+        cache.put(0L, List.of(), version);
+        cache.put(0L, List.of(), cache.version());
+
+        assertNull(cache.get(1L));
+        assertNotNull(cache.get(0L));
+    }
+}
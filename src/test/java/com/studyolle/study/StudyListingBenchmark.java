@@ -0,0 +1,118 @@
+package com.studyolle.study;
+
+import com.studyolle.App;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 공개된 스터디 20만 개를 넣고 1, 10, 100, 1000, 10000 번째 페이지를 읽는 시간을 커서 방식과 OFFSET 방식으로 비교한다.
+ * 커서 방식은 페이지 번호와 상관없이 비슷해야 한다. 테스트가 아니라 직접 실행한다.
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) com.studyolle.study.StudyListingBenchmark
+ * </pre>
+ */
+public class StudyListingBenchmark {
+
+    private static final int STUDIES = 200_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int[] PAGES = {1, 10, 100, 1_000, 10_000};
+    private static final int RUNS = 200;
+    private static final LocalDateTime BASE = LocalDateTime.of(2021, 1, 1, 0, 0);
+
+    public static void main(String[] args) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(App.class)
+                .properties("server.port=0", "app.mail.poll-interval=1h",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO")
+                .run(args)) {
+            insertStudies(context.getBean(JdbcTemplate.class));
+
+            StudyRepository studyRepository = context.getBean(StudyRepository.class);
+            TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+            EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+
+            // JIT 이 먼저 돈 페이지만 느리게 보이지 않도록 한 바퀴 버린다
+            for (int round = 0; round < 2; round++) {
+                for (int page : PAGES) {
+                    measure(page, p -> transactionTemplate.execute(status -> studyRepository
+                            .findPublishedSummaries(null, null, null, p == 1 ? null : cursorBefore(p), PAGE_SIZE).size()));
+                }
+            }
+
+            for (int page : PAGES) {
+                long keyset = measure(page, p -> transactionTemplate.execute(status -> studyRepository
+                        .findPublishedSummaries(null, null, null, p == 1 ? null : cursorBefore(p), PAGE_SIZE).size()));
+                long offset = measure(page, p -> transactionTemplate.execute(status ->
+                        findWithOffset(entityManagerFactory, (p - 1) * PAGE_SIZE)));
+                System.out.printf("page %6d  keyset p50 %7.3f ms  offset p50 %8.3f ms%n", page, keyset / 1e6, offset / 1e6);
+            }
+        }
+    }
+
+    /**
+     * 공개 시각은 id 와 같은 순서로 늘고 두 개씩 겹친다. 그러니 최근 순 k 번째 스터디의 id 는 STUDIES - k 이다.
+     */
+    private static void insertStudies(JdbcTemplate jdbcTemplate) {
+        List<Object[]> rows = new ArrayList<>(STUDIES);
+        for (long id = 1; id <= STUDIES; id++) {
+            rows.add(new Object[]{id, "study-" + id, "스터디 " + id, "짧은 소개", Timestamp.valueOf(publishedAt(id)), id % 2 == 0});
+        }
+        jdbcTemplate.batchUpdate("insert into study (id, path, title, short_description, published_date_time, recruiting,"
+                + " published, closed, use_banner) values (?, ?, ?, ?, ?, ?, true, false, false)", rows);
+    }
+
+    private static LocalDateTime publishedAt(long id) {
+        return BASE.plusSeconds(id / 2);
+    }
+
+    private static StudyCursor cursorBefore(int page) {
+        long id = STUDIES - ((long) (page - 1) * PAGE_SIZE - 1);
+        return new StudyCursor(publishedAt(id), id);
+    }
+
+    private static int findWithOffset(EntityManagerFactory entityManagerFactory, int offset) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("select new com.studyolle.study.StudySummary("
+                            + "s.id, s.path, s.title, s.shortDescription, s.imageHash, s.publishedDateTime, size(s.members))"
+                            + " from Study s where s.published = true and s.publishedDateTime is not null"
+                            + " order by s.publishedDateTime desc, s.id desc", StudySummary.class)
+                    .setFirstResult(offset)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList().size();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * H2 는 같은 쿼리를 같은 인자로 다시 실행하면 이전 결과를 돌려주므로 매번 근처의 다른 페이지를 읽는다.
+     */
+    private static long measure(int page, IntUnaryOperator query) {
+        for (int i = 0; i < RUNS / 4; i++) {
+            query.applyAsInt(Math.max(1, page - i % 10));
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            if (query.applyAsInt(Math.max(1, page - i % 10)) != PAGE_SIZE) {
+                throw new IllegalStateException("한 페이지를 채우지 못했습니다");
+            }
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[RUNS / 2];
+    }
+}
@@ -0,0 +1,210 @@
+package com.studyolle.study;
+
+import com.studyolle.account.AccountRepository;
+import com.studyolle.domain.Account;
+import com.studyolle.domain.Study;
+import com.studyolle.domain.Tag;
+import com.studyolle.tag.TagRepository;
+import com.studyolle.zone.ZoneRepository;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.mail.poll-interval=1h")
+class StudyServiceTest {
+
+    static final String STUDY_PATH = "join-study";
+
+    @Autowired StudyService studyService;
+    @Autowired StudyRepository studyRepository;
+    @Autowired AccountRepository accountRepository;
+    @Autowired TagRepository tagRepository;
+    @Autowired ZoneRepository zoneRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void afterEach() {
+        studyRepository.deleteAll();
+        accountRepository.deleteAll();
+        tagRepository.deleteAll();
+    }
+
+    @DisplayName("색인용 조회 - 상세 소개, 태그, 지역을 모두 채워서 읽음")
+    @Test
+    void findForSearchByIdIn() {
+        Study study = createStudy(null);
+        transactionTemplate.executeWithoutResult(status -> {
+            Study loaded = studyRepository.findById(study.getId()).orElseThrow();
+            loaded.setFullDescription("<p>상세 소개</p>");
+            loaded.getTags().add(tagRepository.save(Tag.builder().title("search-spring").build()));
+            loaded.getTags().add(tagRepository.save(Tag.builder().title("search-jpa").build()));
+            loaded.getZones().addAll(zoneRepository.findAll(PageRequest.of(0, 3)).getContent());
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Study> studies = studyRepository.findForSearchByIdIn(List.of(study.getId()));
+
+            assertEquals(1, studies.size());
+            Study found = studies.get(0);
+            assertTrue(Hibernate.isInitialized(found.getTags()));
+            assertTrue(Hibernate.isInitialized(found.getZones()));
+            assertEquals(2, found.getTags().size());
+            assertEquals(3, found.getZones().size());
+            assertEquals("<p>상세 소개</p>", found.getFullDescription());
+        });
+    }
+
+    @DisplayName("동시에 수백 명이 가입해도 정원만큼만 가입되고 카운터와 멤버 행 수가 같음")
+    @Test
+    void joinStudy_concurrently() throws Exception {
+        Study study = createStudy(50);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            accounts.add(Account.builder().nickname("joiner" + i).email("joiner" + i + "@email.com")
+                    .password("12345678").build());
+        }
+        accountRepository.saveAll(accounts);
+
+        // 계정마다 두 번씩 눌러도 한 번만 가입된다
+        List<Boolean> joined = runConcurrently(accounts, 2,
+                account -> studyService.joinStudy(STUDY_PATH, account.getId()));
+
+        assertEquals(50, joined.stream().filter(Boolean::booleanValue).count());
+        assertCounterMatchesRows(study, 50);
+
+        List<Long> memberIds = jdbcTemplate.queryForList("select members_id from study_members where study_id = ?",
+                Long.class, study.getId());
+        List<Boolean> left = runConcurrently(accountRepository.findAllById(memberIds), 2,
+                account -> studyService.leaveStudy(STUDY_PATH, account.getId()));
+
+        assertEquals(50, left.stream().filter(Boolean::booleanValue).count());
+        assertCounterMatchesRows(study, 0);
+    }
+
+    @DisplayName("가입하는 동안 스터디 설정을 고쳐도 카운터를 덮어쓰지 않음")
+    @Test
+    void joinStudy_while_updating_settings() throws Exception {
+        Study study = createStudy(null);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            accounts.add(Account.builder().nickname("joiner" + i).email("joiner" + i + "@email.com")
+                    .password("12345678").build());
+        }
+        accountRepository.saveAll(accounts);
+
+        // 설정 화면처럼 스터디를 읽어 둔 채로 가입이 커밋되기를 기다렸다가 고친다
+        AtomicBoolean joining = new AtomicBoolean(true);
+        ExecutorService updater = Executors.newSingleThreadExecutor();
+        Future<Integer> updates = updater.submit(() -> {
+            int count = 0;
+            while (joining.get()) {
+                String bannerUse = count++ % 2 == 0 ? "enable" : "disable";
+                transactionTemplate.executeWithoutResult(status -> {
+                    Study loaded = studyRepository.findByPath(STUDY_PATH);
+                    sleep(5);
+                    studyService.updateBannerUse(loaded, bannerUse);
+                });
+            }
+            return count;
+        });
+
+        List<Boolean> joined = runConcurrently(accounts, 1,
+                account -> studyService.joinStudy(STUDY_PATH, account.getId()));
+        joining.set(false);
+        assertTrue(updates.get(30, TimeUnit.SECONDS) > 0);
+        updater.shutdown();
+
+        assertEquals(100, joined.stream().filter(Boolean::booleanValue).count());
+        assertCounterMatchesRows(study, 100);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @DisplayName("관리자, 모집 중이 아닌 스터디는 가입되지 않음")
+    @Test
+    void joinStudy_notJoinable() {
+        Account manager = accountRepository.save(Account.builder().nickname("manager").email("manager@email.com")
+                .password("12345678").build());
+        Study study = createStudy(null);
+        jdbcTemplate.update("insert into study_managers (study_id, managers_id) values (?, ?)", study.getId(), manager.getId());
+
+        assertFalse(studyService.joinStudy(STUDY_PATH, manager.getId()));
+        assertFalse(studyService.leaveStudy(STUDY_PATH, manager.getId()));
+        assertCounterMatchesRows(study, 0);
+
+        Account member = accountRepository.save(Account.builder().nickname("member").email("member@email.com")
+                .password("12345678").build());
+        jdbcTemplate.update("update study set recruiting = false where id = ?", study.getId());
+        assertFalse(studyService.joinStudy(STUDY_PATH, member.getId()));
+        jdbcTemplate.update("update study set recruiting = true where id = ?", study.getId());
+        assertTrue(studyService.joinStudy(STUDY_PATH, member.getId()));
+        assertCounterMatchesRows(study, 1);
+    }
+
+    private Study createStudy(Integer memberLimit) {
+        return studyRepository.save(Study.builder()
+                .path(STUDY_PATH).title("가입 스터디").shortDescription("소개")
+                .published(true).recruiting(true).publishedDateTime(LocalDateTime.now())
+                .memberLimit(memberLimit)
+                .managers(new HashSet<>()).members(new HashSet<>()).tags(new HashSet<>()).zones(new HashSet<>())
+                .build());
+    }
+
+    private void assertCounterMatchesRows(Study study, int expected) {
+        assertEquals(expected, jdbcTemplate.queryForObject("select member_count from study where id = ?",
+                Integer.class, study.getId()));
+        assertEquals(expected, jdbcTemplate.queryForObject("select count(*) from study_members where study_id = ?",
+                Integer.class, study.getId()));
+    }
+
+    private List<Boolean> runConcurrently(List<Account> accounts, int times, Predicate<Account> action) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            for (Account account : accounts) {
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    return action.test(account);
+                }));
+            }
+        }
+        start.countDown();
+
+        List<Boolean> results = new ArrayList<>();
+        for (Future<Boolean> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        executorService.shutdown();
+        return results;
+    }
+}
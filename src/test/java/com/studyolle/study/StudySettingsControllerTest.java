@@ -0,0 +1,323 @@
+package com.studyolle.study;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyolle.SqlStatementCollector;
+import com.studyolle.WithAccount;
+import com.studyolle.account.AccountRepository;
+import com.studyolle.domain.Account;
+import com.studyolle.domain.Study;
+import com.studyolle.domain.Tag;
+import com.studyolle.domain.Zone;
+import com.studyolle.image.ImageStore;
+import com.studyolle.settings.form.TagsForm;
+import com.studyolle.settings.form.ZonesForm;
+import com.studyolle.tag.TagRepository;
+import com.studyolle.zone.ZoneRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.unit.DataSize;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.imageio.ImageIO;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Transactional
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.studyolle.SqlStatementCollector",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.mail.poll-interval=1h"
+})
+@AutoConfigureMockMvc
+class StudySettingsControllerTest {
+
+    static final String STUDY_PATH = "test-study";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    StudyService studyService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    TagRepository tagRepository;
+
+    @Autowired
+    ZoneRepository zoneRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void beforeEach() {
+        SqlStatementCollector.clear();
+    }
+
+    @DisplayName("스터디 설정 화면 - 상세 소개 컬럼을 읽지 않음")
+    @Test
+    @WithAccount("wook")
+    void settingsPages_without_fullDescription() throws Exception {
+        createStudy("wook");
+
+        assertSettingsPageColumns("/banner", "study/settings/banner", false);
+        assertSettingsPageColumns("/tags", "study/settings/tags", false);
+        assertSettingsPageColumns("/zones", "study/settings/zones", false);
+        assertSettingsPageColumns("/study", "study/settings/study", false);
+        assertSettingsPageColumns("/description", "study/settings/description", true);
+    }
+
+    @DisplayName("스터디 설정 화면 - 화면별 조회 행 수와 쿼리 수")
+    @Test
+    @WithAccount("wook")
+    void settingsPages_fetch_plan() throws Exception {
+        Study study = createStudy("wook");
+        for (int i = 0; i < 3; i++) {
+            study.getTags().add(tagRepository.save(Tag.builder().title("tag" + i).build()));
+        }
+        study.getZones().addAll(zoneRepository.findAll(PageRequest.of(0, 3)).getContent());
+        entityManager.flush();
+
+        assertSettingsPageFetch("/tags", 3, 4);
+        assertSettingsPageFetch("/zones", 3, 4);
+        assertSettingsPageFetch("/banner", 1, 5);
+        assertSettingsPageFetch("/study", 1, 5);
+    }
+
+    @DisplayName("스터디 설정 화면 - 관리자가 아니면 접근 불가")
+    @Test
+    @WithAccount("wook")
+    void settingsPage_not_manager() throws Exception {
+        Account manager = accountRepository.save(Account.builder()
+                .nickname("manager")
+                .email("manager@email.com")
+                .password("12345678")
+                .build());
+        createStudy(manager.getNickname());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (String url : List.of("/description", "/banner", "/tags", "/zones", "/study")) {
+            entityManager.clear();
+            statistics.clear();
+
+            mockMvc.perform(get("/study/" + STUDY_PATH + "/settings" + url))
+                    .andExpect(status().isForbidden());
+
+            assertEquals(0, statistics.getEntityLoadCount(), url + " 화면은 관리자 확인 전에 스터디를 읽지 않아야 합니다.");
+            assertEquals(1, statistics.getPrepareStatementCount(), url + " 화면의 쿼리 수");
+        }
+    }
+
+    @DisplayName("스터디 태그와 지역 목록 한 번에 수정")
+    @Test
+    @WithAccount("wook")
+    void replaceStudyTagsAndZones() throws Exception {
+        Study study = createStudy("wook");
+        study.getTags().add(tagRepository.save(Tag.builder().title("drop").build()));
+        entityManager.flush();
+
+        TagsForm tagsForm = new TagsForm();
+        tagsForm.setTagTitles(List.of("spring", "jpa"));
+        mockMvc.perform(put("/study/" + STUDY_PATH + "/settings/tags")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(tagsForm))
+                        .with(csrf()))
+                .andExpect(status().isOk());
+
+        ZonesForm zonesForm = new ZonesForm();
+        zonesForm.setZoneNames(List.of("Andong(안동시)/North Gyeongsang"));
+        mockMvc.perform(put("/study/" + STUDY_PATH + "/settings/zones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(zonesForm))
+                        .with(csrf()))
+                .andExpect(status().isOk());
+
+        entityManager.clear();
+        Study updated = studyService.getStudy(STUDY_PATH);
+        assertEquals(Set.of("spring", "jpa"), updated.getTags().stream().map(Tag::getTitle).collect(Collectors.toSet()));
+        assertEquals(Set.of("Andong"), updated.getZones().stream().map(Zone::getCity).collect(Collectors.toSet()));
+    }
+
+    @DisplayName("배너 이미지 수정 - 원본과 썸네일을 같은 해시로 제공")
+    @Test
+    @WithAccount("wook")
+    void updateBannerImage() throws Exception {
+        Study study = createStudy("wook");
+
+        mockMvc.perform(post("/study/" + STUDY_PATH + "/settings/banner")
+                        .param("image", pngDataUrl(1000, 300))
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attributeExists("message"));
+
+        String hash = study.getImageHash();
+        assertNotNull(hash);
+
+        byte[] banner = mockMvc.perform(get(study.getImage()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string("ETag", "\"" + hash + "\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(1000, ImageIO.read(new ByteArrayInputStream(banner)).getWidth());
+
+        byte[] thumbnail = mockMvc.perform(get(study.getThumbnailImage()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string("ETag", "\"" + hash + "\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        BufferedImage resized = ImageIO.read(new ByteArrayInputStream(thumbnail));
+        assertEquals(ImageStore.THUMBNAIL_WIDTH, resized.getWidth());
+        assertEquals(105, resized.getHeight());
+    }
+
+    @DisplayName("배너 이미지 수정 - 너무 큰 이미지는 400")
+    @Test
+    @WithAccount("wook")
+    void updateBannerImage_oversized() throws Exception {
+        Study study = createStudy("wook");
+        byte[] bytes = new byte[(int) DataSize.ofMegabytes(1).toBytes() + 1];
+        System.arraycopy(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}, 0, bytes, 0, 8);
+
+        mockMvc.perform(post("/study/" + STUDY_PATH + "/settings/banner")
+                        .param("image", "data:image/png;base64," + Base64.getEncoder().encodeToString(bytes))
+                        .with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(view().name("study/settings/banner"))
+                .andExpect(model().attributeExists("imageError"));
+
+        assertNull(study.getImageHash());
+    }
+
+    @DisplayName("배너 이미지 수정 - 헤더에 적힌 픽셀 수가 너무 크면 디코딩하지 않고 400")
+    @Test
+    @WithAccount("wook")
+    void updateBannerImage_too_many_pixels() throws Exception {
+        Study study = createStudy("wook");
+        byte[] bytes = Base64.getDecoder().decode(pngDataUrl(10, 10).substring("data:image/png;base64,".length()));
+        // IHDR 의 가로, 세로를 100000 으로 바꾸고 CRC 를 다시 계산한다
+        ByteBuffer.wrap(bytes, 16, 8).putInt(100_000).putInt(100_000);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 12, 17);
+        ByteBuffer.wrap(bytes, 29, 4).putInt((int) crc.getValue());
+
+        mockMvc.perform(post("/study/" + STUDY_PATH + "/settings/banner")
+                        .param("image", "data:image/png;base64," + Base64.getEncoder().encodeToString(bytes))
+                        .with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(view().name("study/settings/banner"))
+                .andExpect(model().attribute("imageError", containsString("픽셀")));
+
+        assertNull(study.getImageHash());
+    }
+
+    @DisplayName("배너 이미지 수정 - 형식이 잘못된 입력은 400")
+    @Test
+    @WithAccount("wook")
+    void updateBannerImage_malformed() throws Exception {
+        Study study = createStudy("wook");
+
+        for (String image : List.of("", "not a data url", "data:image/png;base64,@@@@", "data:text/html;base64,PGgxPg==",
+                "data:image/png;base64," + Base64.getEncoder().encodeToString("<svg/>".getBytes(StandardCharsets.UTF_8)))) {
+            mockMvc.perform(post("/study/" + STUDY_PATH + "/settings/banner")
+                            .param("image", image)
+                            .with(csrf()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(model().attributeExists("imageError"));
+        }
+
+        assertNull(study.getImageHash());
+    }
+
+    private static String pngDataUrl(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", outputStream);
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(outputStream.toByteArray());
+    }
+
+    private void assertSettingsPageFetch(String url, long studyRows, long statements) throws Exception {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/study/" + STUDY_PATH + "/settings" + url))
+                .andExpect(status().isOk());
+
+        long rows = Arrays.stream(statistics.getQueries())
+                .filter(query -> query.startsWith("select generatedAlias0 from Study "))
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionRowCount())
+                .sum();
+        assertEquals(studyRows, rows, url + " 화면의 스터디 조회 행 수");
+        assertEquals(statements, statistics.getPrepareStatementCount(), url + " 화면의 쿼리 수");
+    }
+
+    private void assertSettingsPageColumns(String url, String viewName, boolean loadsFullDescription) throws Exception {
+        entityManager.clear();
+        SqlStatementCollector.clear();
+
+        mockMvc.perform(get("/study/" + STUDY_PATH + "/settings" + url))
+                .andExpect(status().isOk())
+                .andExpect(view().name(viewName));
+
+        boolean selected = SqlStatementCollector.getStatements().stream()
+                .anyMatch(sql -> sql.startsWith("select") && sql.contains("full_description"));
+        if (loadsFullDescription) {
+            assertTrue(selected, url + " 화면은 상세 소개를 읽어야 합니다.");
+        } else {
+            assertFalse(selected, url + " 화면은 상세 소개를 읽지 않아야 합니다.");
+        }
+    }
+
+    private Study createStudy(String nickname) {
+        Account account = accountRepository.findByNickname(nickname);
+        Study study = new Study();
+        study.setPath(STUDY_PATH);
+        study.setTitle("테스트 스터디");
+        study.setShortDescription("짧은 소개");
+        study.setFullDescription("<p>아주 긴 상세 소개</p>");
+        Study newStudy = studyService.createNewStudy(study, account);
+        entityManager.flush();
+        return newStudy;
+    }
+}
@@ -0,0 +1,67 @@
+package com.studyolle.tag;
+
+import com.studyolle.WithAccount;
+import com.studyolle.account.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TagControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired TagService tagService;
+    @Autowired TagDictionary tagDictionary;
+    @Autowired AccountRepository accountRepository;
+    @Autowired TagRepository tagRepository;
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+        tagRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("접두어로 태그 추천")
+    @Test
+    @WithAccount("wook")
+    void suggest() throws Exception {
+        List.of("Suggest-Spring", "suggest-spring-boot", "suggest-jpa", "suggest-java").forEach(tagService::findOrCreateNew);
+
+        mockMvc.perform(get("/tags/suggest").param("q", "SUGGEST-SP"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0]").value("Suggest-Spring"))
+                .andExpect(jsonPath("$[1]").value("suggest-spring-boot"));
+
+        mockMvc.perform(get("/tags/suggest").param("q", "suggest-").param("limit", "3"))
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @DisplayName("대소문자만 다른 태그도 모두 추천")
+    @Test
+    void suggest_case_variants() {
+        List.of("Case-Java", "CASE-JAVA", "case-java").forEach(tagService::findOrCreateNew);
+
+        assertEquals(List.of("CASE-JAVA", "Case-Java", "case-java"), tagDictionary.suggest("case-j", 10));
+    }
+
+    @DisplayName("빈 접두어는 추천하지 않음")
+    @Test
+    void suggest_empty() {
+        tagService.findOrCreateNew("suggest-empty");
+
+        assertEquals(List.of(), tagDictionary.suggest(" ", 10));
+    }
+}
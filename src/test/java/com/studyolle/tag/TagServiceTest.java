@@ -0,0 +1,134 @@
+package com.studyolle.tag;
+
+import com.studyolle.JdbcStatementCounter;
+import com.studyolle.domain.Tag;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManagerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.mail.poll-interval=1h"
+})
+@Import(JdbcStatementCounter.class)
+class TagServiceTest {
+
+    @Autowired TagService tagService;
+    @Autowired TagRepository tagRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void afterEach() {
+        tagRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("제목 100개 찾거나 만들기 - 태그 수와 상관없이 조회, 배치 insert, 조회 세 문장")
+    @Test
+    void findOrCreateNew_statement_count() {
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            titles.add("bulk-" + i);
+        }
+        for (String title : titles.subList(0, 40)) {
+            tagRepository.save(Tag.builder().title(title).build());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        JdbcStatementCounter.clear();
+        Map<String, Tag> tags = tagService.findOrCreateNew(titles);
+
+        assertEquals(100, tags.size());
+        assertEquals(3, JdbcStatementCounter.getCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        JdbcStatementCounter.clear();
+        tagService.findOrCreateNew(titles);
+
+        assertEquals(1, JdbcStatementCounter.getCount());
+    }
+
+    @DisplayName("여러 제목을 한 번에 찾거나 만듦")
+    @Test
+    void findOrCreateNew_batch() {
+        Tag existing = tagRepository.save(Tag.builder().title("batch-existing").build());
+
+        Map<String, Tag> tags = tagService.findOrCreateNew(List.of("batch-new", "batch-existing", "batch-new"));
+
+        assertEquals(List.of("batch-new", "batch-existing"), new ArrayList<>(tags.keySet()));
+        assertEquals(existing.getId(), tags.get("batch-existing").getId());
+        assertEquals(tagRepository.findByTitle("batch-new").orElseThrow().getId(), tags.get("batch-new").getId());
+        assertEquals(tags.get("batch-new").getId(), tagService.findOrCreateNew("batch-new").getId());
+    }
+
+    @DisplayName("동시에 같은 태그를 만들어도 한 행만 생김")
+    @Test
+    void findOrCreateNew_concurrently() throws Exception {
+        List<String> titles = List.of("race-1", "race-2", "race-3");
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Map<String, Tag>>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return tagService.findOrCreateNew(titles);
+            }));
+        }
+        start.countDown();
+
+        Set<Long> ids = new HashSet<>();
+        for (Future<Map<String, Tag>> future : futures) {
+            future.get(10, TimeUnit.SECONDS).values().forEach(tag -> ids.add(tag.getId()));
+        }
+        executorService.shutdown();
+
+        assertEquals(3, ids.size());
+        for (String title : titles) {
+            assertTrue(ids.contains(tagRepository.findByTitle(title).orElseThrow().getId()));
+        }
+    }
+
+    @DisplayName("겹치는 제목 목록을 서로 다른 순서로 동시에 만들어도 서로 기다리다 실패하지 않음")
+    @Test
+    void findOrCreateNew_opposite_orders() throws Exception {
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            titles.add("order-" + i);
+        }
+        List<String> reversed = new ArrayList<>(titles);
+        Collections.reverse(reversed);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Map<String, Tag>>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            List<String> batch = i % 2 == 0 ? titles : reversed;
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return tagService.findOrCreateNew(batch);
+            }));
+        }
+        start.countDown();
+
+        for (Future<Map<String, Tag>> future : futures) {
+            Map<String, Tag> tags = future.get(30, TimeUnit.SECONDS);
+            assertEquals(20, tags.size());
+            assertTrue(tags.values().stream().allMatch(tag -> tag.getId() != null));
+        }
+        executorService.shutdown();
+
+        assertEquals(20, tagRepository.count());
+    }
+}
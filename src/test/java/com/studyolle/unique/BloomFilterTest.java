@@ -0,0 +1,32 @@
+package com.studyolle.unique;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @DisplayName("넣은 값은 용량을 넘겨도 모두 있다고 답하고, 넣지 않은 값의 오탐률은 정한 값 근처")
+    @Test
+    void noFalseNegatives() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.add("user" + i + "@email.com");
+        }
+
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@email.com"));
+        }
+        assertTrue(filter.segmentCount() > 1);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@email.com")) {
+                falsePositives++;
+            }
+        }
+        // 이어 붙인 필터들의 오탐률 합은 약 0.94% 이므로 표본 오차를 두고 1.5% 아래인지만 본다
+        assertTrue(falsePositives < 1_500, falsePositives + " false positives");
+    }
+}
@@ -0,0 +1,89 @@
+package com.studyolle.unique;
+
+import com.studyolle.WithAccount;
+import com.studyolle.account.AccountRepository;
+import com.studyolle.domain.Account;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.mail.poll-interval=1h"
+})
+@AutoConfigureMockMvc
+class UniqueNameControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired UniqueNames uniqueNames;
+    @Autowired AccountRepository accountRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @DisplayName("닉네임 확인 - 필터를 거치지 않고 DB 로 확인해서 다른 노드에서 가입한 닉네임도 쓰고 있다고 답함")
+    @Test
+    @WithAccount("wook")
+    void checkNickname() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        mockMvc.perform(get("/check/nickname").param("nickname", "wook"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/check/nickname").param("nickname", "nobody"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(true));
+
+        // 다른 노드에서 가입해서 이 노드의 필터에는 없는 닉네임
+        accountRepository.saveAndFlush(Account.builder()
+                .nickname("elsewhere").email("elsewhere@email.com").password("12345678").build());
+        mockMvc.perform(get("/check/nickname").param("nickname", "elsewhere"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false));
+    }
+
+    @DisplayName("닉네임 확인 - 한 주소에서 정해진 횟수를 넘으면 429")
+    @Test
+    void checkNickname_rate_limited() throws Exception {
+        for (int i = 0; i < NicknameCheckLimiter.LIMIT; i++) {
+            mockMvc.perform(get("/check/nickname").param("nickname", "guess" + i).with(remoteAddr("10.0.0.1")))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/check/nickname").param("nickname", "one-more").with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/check/nickname").param("nickname", "one-more").with(remoteAddr("10.0.0.2")))
+                .andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    @DisplayName("필터에 남은 예전 값은 DB 확인에서 걸러짐")
+    @Test
+    void staleValueIsConfirmed() {
+        uniqueNames.addStudyPath("removed-study");
+
+        assertEquals(false, uniqueNames.isStudyPathTaken("removed-study"));
+    }
+}
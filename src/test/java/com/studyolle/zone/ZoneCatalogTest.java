@@ -0,0 +1,68 @@
+package com.studyolle.zone;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studyolle.domain.Zone;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZoneCatalogTest {
+
+    Zone seoul = Zone.builder().id(1L).city("Seoul").localNameOfCity("서울특별시").province("none").build();
+    Zone andong = Zone.builder().id(2L).city("Andong").localNameOfCity("안동시").province("North Gyeongsang").build();
+    Zone suwon = Zone.builder().id(3L).city("Suwon").localNameOfCity("수원시").province("Gyeonggi").build();
+
+    ZoneCatalog zoneCatalog = new ZoneCatalog(new ObjectMapper());
+
+    @BeforeEach
+    void beforeEach() {
+        zoneCatalog.load(List.of(seoul, andong, suwon));
+    }
+
+    @DisplayName("표시 문자열과 화이트리스트 JSON")
+    @Test
+    void displayNames() {
+        assertEquals("Andong(안동시)/North Gyeongsang", zoneCatalog.getDisplayName(andong));
+        assertEquals(List.of("Suwon(수원시)/Gyeonggi", "Seoul(서울특별시)/none"), zoneCatalog.getDisplayNamesById(List.of(3L, 99L, 1L)));
+        assertEquals(List.of("Seoul(서울특별시)/none", "Andong(안동시)/North Gyeongsang"), zoneCatalog.getDisplayNames(List.of(seoul, andong)));
+        assertEquals("[\"Seoul(서울특별시)/none\",\"Andong(안동시)/North Gyeongsang\",\"Suwon(수원시)/Gyeonggi\"]",
+                zoneCatalog.getWhitelistJson());
+    }
+
+    @DisplayName("카탈로그에 없는 지역도 표시 문자열은 만듦")
+    @Test
+    void displayNameOfUnknownZone() {
+        Zone busan = Zone.builder().id(4L).city("Busan").localNameOfCity("부산광역시").province("none").build();
+
+        assertEquals("Busan(부산광역시)/none", zoneCatalog.getDisplayName(busan));
+    }
+
+    @DisplayName("id, 도시 이름, 표시 문자열로 찾기")
+    @Test
+    void lookups() {
+        assertEquals(Optional.of(andong), zoneCatalog.findById(2L));
+        assertTrue(zoneCatalog.findById(99L).isEmpty());
+
+        assertEquals(Optional.of(suwon), zoneCatalog.findByCityAndLocalNameOfCity("Suwon", "수원시"));
+        assertTrue(zoneCatalog.findByCityAndLocalNameOfCity("Suwon", "안동시").isEmpty());
+
+        assertEquals(Optional.of(seoul), zoneCatalog.findByDisplayName("Seoul(서울특별시)/none"));
+        assertTrue(zoneCatalog.findByDisplayName("Seoul(서울특별시)/Gyeonggi").isEmpty());
+    }
+
+    @DisplayName("다시 읽어 들이면 이전 목록을 통째로 바꿈")
+    @Test
+    void reloadReplacesSnapshot() {
+        zoneCatalog.load(List.of(suwon));
+
+        assertTrue(zoneCatalog.findById(1L).isEmpty());
+        assertEquals(Optional.of(suwon), zoneCatalog.findById(3L));
+        assertEquals("[\"Suwon(수원시)/Gyeonggi\"]", zoneCatalog.getWhitelistJson());
+    }
+}
@@ -0,0 +1,128 @@
+package com.studyolle.zone;
+
+import com.studyolle.domain.Zone;
+import com.studyolle.reference.ReferenceDataLoader;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Transactional
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.mail.poll-interval=1h"
+})
+class ZoneDatasetTest {
+
+    @Autowired ReferenceDataLoader referenceDataLoader;
+    @Autowired ZoneDataset zoneDataset;
+    @Autowired ZoneRepository zoneRepository;
+    @Autowired ZoneCatalog zoneCatalog;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired EntityManager entityManager;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @AfterTransaction
+    void reloadCatalog() {
+        zoneCatalog.load(zoneRepository.findAll());
+    }
+
+    @DisplayName("지역 초기 데이터 - 시작할 때 반영했으면 파일이 같은 동안 다시 반영하지 않음")
+    @Test
+    void unchangedFileIsSkipped() {
+        assertEquals(85, zoneRepository.count());
+
+        assertEquals(0, referenceDataLoader.load(zoneDataset));
+        assertEquals(85, zoneRepository.count());
+    }
+
+    @DisplayName("지역 초기 데이터 - 빈 테이블은 시퀀스 두 번과 배치 insert 하나로 채움")
+    @Test
+    void emptyTableIsSeededInBatches() {
+        zoneRepository.deleteAllInBatch();
+        jdbcTemplate.update("delete from reference_data_version");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertEquals(85, referenceDataLoader.load(zoneDataset));
+
+        // 시퀀스 2(50개씩), insert 1(배치 두 번), 지역 목록을 다시 만드는 findAll. update 와 해시는 JdbcTemplate 으로 보낸다.
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(85, zoneRepository.count());
+    }
+
+    @DisplayName("지역 초기 데이터 - 파일이 바뀌면 있는 지역은 고치고 중복해서 만들지 않음")
+    @Test
+    void changedFileIsUpserted() {
+        Zone zone = zoneRepository.findAll().get(0);
+        jdbcTemplate.update("update zone set province = null where id = ?", zone.getId());
+        jdbcTemplate.update("update reference_data_version set hash = 'old' where name = 'zones'");
+
+        assertEquals(85, referenceDataLoader.load(zoneDataset));
+
+        entityManager.clear();
+        assertEquals(85, zoneRepository.count());
+        assertEquals(zone.getProvince(), zoneRepository.findById(zone.getId()).orElseThrow().getProvince());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from reference_data_version where hash = 'old'", Integer.class));
+    }
+
+    @DisplayName("지역 초기 데이터 - 해시가 없는 채로 두 노드가 함께 떠도 한 번만 반영")
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentLoadsSeedOnce() throws Exception {
+        jdbcTemplate.update("delete from reference_data_version");
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return referenceDataLoader.load(zoneDataset);
+            }));
+        }
+        start.countDown();
+
+        List<Integer> loaded = new ArrayList<>();
+        for (Future<Integer> future : futures) {
+            loaded.add(future.get(30, TimeUnit.SECONDS));
+        }
+        executorService.shutdown();
+
+        loaded.sort(null);
+        assertEquals(List.of(0, 85), loaded);
+        assertEquals(85, zoneRepository.count());
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from reference_data_version", Integer.class));
+    }
+
+    @DisplayName("지역 목록 - 요청을 받기 전에 DB 에 있는 지역으로 만들어 둠")
+    @Test
+    void catalogIsLoadedFromStoredRows() throws Exception {
+        zoneCatalog.load(List.of());
+
+        referenceDataLoader.loadStored();
+
+        assertEquals(85, zoneCatalog.getDisplayNamesById(
+                zoneRepository.findAll().stream().map(Zone::getId).collect(Collectors.toList())).size());
+    }
+}